@@ -0,0 +1,45 @@
+package io.mosip.biosdk.loadgen;
+
+import java.util.Arrays;
+
+/**
+ * Collects the latencies of one endpoint. Every sample is kept, which is fine for the
+ * request counts of a load test run and gives exact percentiles.
+ */
+final class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    synchronized void record(long latencyNanos, boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    synchronized int errors() {
+        return errors;
+    }
+
+    /**
+     * @return the latency at the given percentile in milliseconds, 0 without samples
+     */
+    synchronized double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100d * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))] / 1_000_000d;
+    }
+}
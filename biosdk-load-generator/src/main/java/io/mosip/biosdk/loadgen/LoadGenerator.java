@@ -0,0 +1,159 @@
+package io.mosip.biosdk.loadgen;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the Bio SDK service endpoints at a fixed request rate and reports throughput
+ * and latency percentiles per endpoint.
+ *
+ * The load is open loop: requests are started on a fixed schedule whether or not earlier
+ * ones completed, and latency is measured from the scheduled start, so a slow service
+ * shows up as latency instead of silently lowering the offered load.
+ *
+ * Options (all optional):
+ * --url http://localhost:9099/biosdk-service, --rps 50, --duration-seconds 60,
+ * --warmup-seconds 10, --endpoints init,check-quality,match,extract-template,convert-format,segment,
+ * --gallery-size 10, --segment-bytes 12288, --max-in-flight 1000, --seed 42
+ */
+public final class LoadGenerator {
+
+    private static final List<String> ALL_ENDPOINTS = Arrays.asList("init", "check-quality", "match",
+            "extract-template", "convert-format", "segment");
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", "http://localhost:9099/biosdk-service");
+        int rps = Integer.parseInt(options.getOrDefault("rps", "50"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration-seconds", "60"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup-seconds", "10"));
+        List<String> endpoints = options.containsKey("endpoints")
+                ? Arrays.asList(options.get("endpoints").split(",")) : ALL_ENDPOINTS;
+        int gallerySize = Integer.parseInt(options.getOrDefault("gallery-size", "10"));
+        int segmentBytes = Integer.parseInt(options.getOrDefault("segment-bytes", "12288"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "1000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        Payloads payloads = new Payloads(seed, segmentBytes);
+        Map<String, String> bodies = new LinkedHashMap<>();
+        for (String endpoint : endpoints) {
+            bodies.put(endpoint, payloads.body(endpoint, gallerySize));
+        }
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors())))
+                .build();
+
+        System.out.printf("Warming up for %d s at %d requests/s%n", warmupSeconds, rps);
+        run(client, url, bodies, rps, warmupSeconds, maxInFlight);
+        System.out.printf("Measuring for %d s at %d requests/s%n", durationSeconds, rps);
+        Run run = run(client, url, bodies, rps, durationSeconds, maxInFlight);
+        report(run, durationSeconds);
+        System.exit(0);
+    }
+
+    private static Run run(HttpClient client, String url, Map<String, String> bodies, int rps, int seconds,
+            int maxInFlight) {
+        Run run = new Run(bodies.keySet());
+        if (seconds <= 0) {
+            return run;
+        }
+        String[] endpoints = bodies.keySet().toArray(new String[0]);
+        HttpRequest[] requests = new HttpRequest[endpoints.length];
+        for (int i = 0; i < endpoints.length; i++) {
+            requests[i] = HttpRequest.newBuilder(URI.create(url + "/" + endpoints[i]))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(120))
+                    .POST(HttpRequest.BodyPublishers.ofString(bodies.get(endpoints[i])))
+                    .build();
+        }
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, rps);
+        long total = (long) rps * seconds;
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long scheduled = start + i * periodNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int endpoint = (int) (i % endpoints.length);
+            if (run.inFlight.get() >= maxInFlight) {
+                run.dropped.incrementAndGet();
+                continue;
+            }
+            run.inFlight.incrementAndGet();
+            LatencyRecorder recorder = run.recorders.get(endpoints[endpoint]);
+            client.sendAsync(requests[endpoint], HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        recorder.record(System.nanoTime() - scheduled, error == null && isSuccess(response));
+                        run.inFlight.decrementAndGet();
+                    });
+        }
+        while (run.inFlight.get() > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        return run;
+    }
+
+    /**
+     * Errors are reported in the body with HTTP 200, so a response only counts as a
+     * success with HTTP 200 and an empty error list.
+     */
+    private static boolean isSuccess(HttpResponse<String> response) {
+        return response.statusCode() == 200 && response.body() != null
+                && response.body().replace(" ", "").contains("\"errors\":[]");
+    }
+
+    private static void report(Run run, int seconds) {
+        System.out.printf(Locale.ROOT, "%-18s %8s %8s %9s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors",
+                "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, LatencyRecorder> entry : run.recorders.entrySet()) {
+            LatencyRecorder recorder = entry.getValue();
+            System.out.printf(Locale.ROOT, "%-18s %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey(),
+                    recorder.count(), recorder.errors(), recorder.count() / (double) seconds,
+                    recorder.percentileMillis(50), recorder.percentileMillis(90), recorder.percentileMillis(99),
+                    recorder.percentileMillis(99.9), recorder.percentileMillis(100));
+        }
+        if (run.dropped.get() > 0) {
+            System.out.printf("%d requests not sent, more than --max-in-flight were outstanding%n", run.dropped.get());
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    private static final class Run {
+        private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger dropped = new AtomicInteger();
+
+        private Run(Iterable<String> endpoints) {
+            for (String endpoint : endpoints) {
+                recorders.put(endpoint, new LatencyRecorder());
+            }
+        }
+    }
+}
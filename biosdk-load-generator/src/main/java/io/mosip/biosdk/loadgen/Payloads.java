@@ -0,0 +1,95 @@
+package io.mosip.biosdk.loadgen;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+/**
+ * Request bodies of the service endpoints, built from a fixed seed so that every run
+ * sends the same data. Samples carry 10 fingers, 2 irises and 1 face of the given
+ * size; gallery records carry the same segments, the first one equal to the sample.
+ */
+final class Payloads {
+
+    private static final String[] FINGERS = { "Left IndexFinger", "Left MiddleFinger", "Left RingFinger",
+            "Left LittleFinger", "Left Thumb", "Right IndexFinger", "Right MiddleFinger", "Right RingFinger",
+            "Right LittleFinger", "Right Thumb" };
+    private static final String[] IRISES = { "Left", "Right" };
+    private static final String MODALITIES = "[\"FINGER\",\"IRIS\",\"FACE\"]";
+
+    private final Random random;
+    private final int segmentBytes;
+
+    Payloads(long seed, int segmentBytes) {
+        this.random = new Random(seed);
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * @return the JSON envelope for the endpoint
+     */
+    String body(String endpoint, int gallerySize) {
+        String sample = record();
+        String inner;
+        switch (endpoint) {
+        case "init":
+            inner = "{\"initParams\":{}}";
+            break;
+        case "check-quality":
+            inner = "{\"sample\":" + sample + ",\"modalitiesToCheck\":" + MODALITIES + ",\"flags\":{}}";
+            break;
+        case "match":
+            StringBuilder gallery = new StringBuilder("[").append(sample);
+            for (int i = 1; i < gallerySize; i++) {
+                gallery.append(',').append(record());
+            }
+            gallery.append(']');
+            inner = "{\"sample\":" + sample + ",\"gallery\":" + gallery + ",\"modalitiesToMatch\":" + MODALITIES
+                    + ",\"flags\":{}}";
+            break;
+        case "extract-template":
+            inner = "{\"sample\":" + sample + ",\"modalitiesToExtract\":" + MODALITIES + ",\"flags\":{}}";
+            break;
+        case "segment":
+            inner = "{\"sample\":" + sample + ",\"modalitiesToSegment\":[\"FINGER\"],\"flags\":{}}";
+            break;
+        case "convert-format":
+            inner = "{\"sample\":" + sample + ",\"sourceFormat\":\"ISO19794_5_2011\",\"targetFormat\":\"IMAGE/JPEG\","
+                    + "\"sourceParams\":{},\"targetParams\":{},\"modalitiesToConvert\":[\"FACE\"]}";
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown endpoint: " + endpoint);
+        }
+        String encoded = Base64.getEncoder().encodeToString(inner.getBytes(StandardCharsets.UTF_8));
+        return "{\"version\":\"1.0\",\"request\":\"" + encoded + "\"}";
+    }
+
+    private String record() {
+        StringBuilder segments = new StringBuilder("{\"segments\":[");
+        for (String finger : FINGERS) {
+            segments.append(segment("FINGER", finger, "7")).append(',');
+        }
+        for (String iris : IRISES) {
+            segments.append(segment("IRIS", iris, "9")).append(',');
+        }
+        segments.append(segment("FACE", null, "8"));
+        return segments.append("]}").toString();
+    }
+
+    private String segment(String type, String subtype, String format) {
+        byte[] bdb = new byte[segmentBytes];
+        random.nextBytes(bdb);
+        StringBuilder subtypes = new StringBuilder("[");
+        if (subtype != null) {
+            String[] parts = subtype.split(" ");
+            for (int i = 0; i < parts.length; i++) {
+                subtypes.append(i == 0 ? "" : ",").append('"').append(parts[i]).append('"');
+            }
+        }
+        subtypes.append(']');
+        return "{\"bdbInfo\":{\"type\":[\"" + type + "\"],\"subtype\":" + subtypes
+                + ",\"format\":{\"organization\":\"Mosip\",\"type\":\"" + format + "\"},"
+                + "\"level\":\"RAW\",\"purpose\":\"VERIFY\"},"
+                + "\"bdb\":\"" + Base64.getEncoder().encodeToString(bdb) + "\"}";
+    }
+}
@@ -0,0 +1,160 @@
+package io.mosip.biosdk.services.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.google.gson.Gson;
+
+import io.mosip.biosdk.services.config.GsonConfig;
+import io.mosip.biosdk.services.dto.RequestDto;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.constant.ProcessedLevelType;
+import io.mosip.kernel.biometrics.constant.PurposeType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.entities.RegistryIDType;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+
+/**
+ * Synthetic biometric records of realistic sizes. Contents are random bytes from a fixed
+ * seed, so that every run serializes exactly the same data.
+ */
+final class BiometricSamples {
+
+    /** Compressed sizes of a face image by capture resolution */
+    enum FaceResolution {
+        VGA(40 * 1024), HD(120 * 1024), FHD(300 * 1024), UHD(1100 * 1024);
+
+        private final int bytes;
+
+        FaceResolution(int bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    /** 500 ppi WSQ finger image */
+    static final int FINGER_IMAGE_BYTES = 12 * 1024;
+    /** 640x480 JPEG 2000 iris image */
+    static final int IRIS_IMAGE_BYTES = 20 * 1024;
+    /** Extracted templates held in galleries */
+    static final int FINGER_TEMPLATE_BYTES = 1024;
+    static final int IRIS_TEMPLATE_BYTES = 2 * 1024;
+    static final int FACE_TEMPLATE_BYTES = 1024;
+
+    private static final List<String> FINGERS = Arrays.asList("Left IndexFinger", "Left MiddleFinger",
+            "Left RingFinger", "Left LittleFinger", "Left Thumb", "Right IndexFinger", "Right MiddleFinger",
+            "Right RingFinger", "Right LittleFinger", "Right Thumb");
+    private static final List<String> IRISES = Arrays.asList("Left", "Right");
+
+    private static final LocalDateTime CREATION_DATE = LocalDateTime.of(2021, 3, 30, 8, 43, 17);
+
+    /** The Gson shared by the service */
+    static final Gson GSON = GsonConfig.newGson(false);
+
+    private final Random random;
+
+    BiometricSamples(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * @return a captured record with 10 fingers, 2 irises and 1 face
+     */
+    BiometricRecord capture(FaceResolution face) {
+        List<BIR> segments = new ArrayList<>();
+        for (String finger : FINGERS) {
+            segments.add(segment(BiometricType.FINGER, finger, ProcessedLevelType.RAW, FINGER_IMAGE_BYTES));
+        }
+        for (String iris : IRISES) {
+            segments.add(segment(BiometricType.IRIS, iris, ProcessedLevelType.RAW, IRIS_IMAGE_BYTES));
+        }
+        segments.add(segment(BiometricType.FACE, null, ProcessedLevelType.RAW, face.bytes));
+        return record(segments);
+    }
+
+    /**
+     * @return an extracted record with templates of 10 fingers, 2 irises and 1 face
+     */
+    BiometricRecord template() {
+        List<BIR> segments = new ArrayList<>();
+        for (String finger : FINGERS) {
+            segments.add(segment(BiometricType.FINGER, finger, ProcessedLevelType.PROCESSED, FINGER_TEMPLATE_BYTES));
+        }
+        for (String iris : IRISES) {
+            segments.add(segment(BiometricType.IRIS, iris, ProcessedLevelType.PROCESSED, IRIS_TEMPLATE_BYTES));
+        }
+        segments.add(segment(BiometricType.FACE, null, ProcessedLevelType.PROCESSED, FACE_TEMPLATE_BYTES));
+        return record(segments);
+    }
+
+    BiometricRecord[] gallery(int size) {
+        BiometricRecord[] gallery = new BiometricRecord[size];
+        for (int i = 0; i < size; i++) {
+            gallery[i] = template();
+        }
+        return gallery;
+    }
+
+    MatchDecision[] decisions(int size) {
+        MatchDecision[] decisions = new MatchDecision[size];
+        for (int i = 0; i < size; i++) {
+            Map<BiometricType, Decision> modalityDecisions = new HashMap<>();
+            for (BiometricType modality : Arrays.asList(BiometricType.FINGER, BiometricType.IRIS, BiometricType.FACE)) {
+                Decision decision = new Decision();
+                decision.setMatch(random.nextInt(size) == 0 ? Match.MATCHED : Match.NOT_MATCHED);
+                decision.setErrors(new ArrayList<>());
+                decision.setAnalyticsInfo(Collections.singletonMap("score", String.valueOf(random.nextDouble())));
+                modalityDecisions.put(modality, decision);
+            }
+            MatchDecision matchDecision = new MatchDecision(i);
+            matchDecision.setDecisions(modalityDecisions);
+            matchDecision.setAnalyticsInfo(new HashMap<>());
+            decisions[i] = matchDecision;
+        }
+        return decisions;
+    }
+
+    /**
+     * @return the request envelope the service receives for the given spec DTO
+     */
+    static RequestDto envelope(Object body) {
+        RequestDto request = new RequestDto();
+        request.setVersion("1.0");
+        request.setRequest(Base64.getEncoder().encodeToString(GSON.toJson(body).getBytes(StandardCharsets.UTF_8)));
+        return request;
+    }
+
+    private BIR segment(BiometricType type, String subtype, ProcessedLevelType level, int bytes) {
+        RegistryIDType format = new RegistryIDType();
+        format.setOrganization("Mosip");
+        format.setType(type == BiometricType.FINGER ? "7" : type == BiometricType.IRIS ? "9" : "8");
+        BDBInfo bdbInfo = new BDBInfo.BDBInfoBuilder()
+                .withType(Collections.singletonList(type))
+                .withSubtype(subtype == null ? new ArrayList<>() : Arrays.asList(subtype.split(" ")))
+                .withFormat(format)
+                .withLevel(level)
+                .withPurpose(PurposeType.VERIFY)
+                .withCreationDate(CREATION_DATE)
+                .build();
+        byte[] bdb = new byte[bytes];
+        random.nextBytes(bdb);
+        return new BIR.BIRBuilder().withBdbInfo(bdbInfo).withBdb(bdb).build();
+    }
+
+    private static BiometricRecord record(List<BIR> segments) {
+        BiometricRecord record = new BiometricRecord();
+        record.setSegments(segments);
+        return record;
+    }
+}
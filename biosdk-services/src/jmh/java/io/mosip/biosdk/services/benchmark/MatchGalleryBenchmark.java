@@ -0,0 +1,82 @@
+package io.mosip.biosdk.services.benchmark;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.stream.JsonReader;
+
+import io.mosip.biosdk.services.dto.ResponseDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
+import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.Response;
+
+/**
+ * The match path by gallery size: request decoding, request logging and response
+ * serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class MatchGalleryBenchmark {
+
+    @Param({ "1", "10", "100", "1000" })
+    public int gallerySize;
+
+    private String encoded;
+    private MatchRequestDto matchRequest;
+    private ResponseDto<Response<MatchDecision[]>> matchResponse;
+    private Utils utils;
+
+    @Setup
+    public void setUp() throws Exception {
+        BiometricSamples samples = new BiometricSamples(42);
+        matchRequest = new MatchRequestDto();
+        matchRequest.setSample(samples.template());
+        matchRequest.setGallery(samples.gallery(gallerySize));
+        matchRequest.setModalitiesToMatch(Arrays.asList(BiometricType.FINGER, BiometricType.IRIS, BiometricType.FACE));
+        matchRequest.setFlags(new HashMap<>());
+        encoded = BiometricSamples.envelope(matchRequest).getRequest();
+
+        Response<MatchDecision[]> response = new Response<>();
+        response.setStatusCode(200);
+        response.setStatusMessage("OK");
+        response.setResponse(samples.decisions(gallerySize));
+        matchResponse = ResponseBenchmarks.envelope(response);
+        utils = ResponseBenchmarks.utils();
+    }
+
+    @Benchmark
+    public Object decodeRequest() throws Exception {
+        try (JsonReader jsonReader = new JsonReader(Utils.base64DecodeReader(encoded))) {
+            return BiometricSamples.GSON.fromJson(jsonReader, MatchRequestDto.class);
+        }
+    }
+
+    @Benchmark
+    public String renderRequest() {
+        return utils.toString(matchRequest);
+    }
+
+    @Benchmark
+    public String serializeResponse() {
+        return BiometricSamples.GSON.toJson(matchResponse);
+    }
+}
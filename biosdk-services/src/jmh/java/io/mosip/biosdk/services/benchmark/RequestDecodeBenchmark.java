@@ -0,0 +1,117 @@
+package io.mosip.biosdk.services.benchmark;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.stream.JsonReader;
+
+import io.mosip.biosdk.services.benchmark.BiometricSamples.FaceResolution;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.CheckQualityRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ConvertFormatRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ExtractTemplateRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.InitRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.SegmentRequestDto;
+import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+/**
+ * Decoding of the base64 encoded inner request and binding to the spec 1.0 DTOs, the
+ * materializing way (decode to a String, then parse) and the streaming way used by the
+ * service provider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class RequestDecodeBenchmark {
+
+    @Param({ "init", "checkQuality", "extractTemplate", "segment", "convertFormat" })
+    public String operation;
+
+    @Param({ "VGA", "FHD", "UHD" })
+    public FaceResolution face;
+
+    private String encoded;
+    private Class<?> type;
+
+    @Setup
+    public void setUp() {
+        BiometricRecord sample = new BiometricSamples(42).capture(face);
+        Object body;
+        switch (operation) {
+        case "init":
+            InitRequestDto init = new InitRequestDto();
+            init.setInitParams(new HashMap<>());
+            body = init;
+            break;
+        case "checkQuality":
+            CheckQualityRequestDto checkQuality = new CheckQualityRequestDto();
+            checkQuality.setSample(sample);
+            checkQuality.setModalitiesToCheck(Arrays.asList(BiometricType.FINGER, BiometricType.IRIS, BiometricType.FACE));
+            checkQuality.setFlags(new HashMap<>());
+            body = checkQuality;
+            break;
+        case "extractTemplate":
+            ExtractTemplateRequestDto extractTemplate = new ExtractTemplateRequestDto();
+            extractTemplate.setSample(sample);
+            extractTemplate.setModalitiesToExtract(Arrays.asList(BiometricType.FINGER, BiometricType.IRIS, BiometricType.FACE));
+            extractTemplate.setFlags(new HashMap<>());
+            body = extractTemplate;
+            break;
+        case "segment":
+            SegmentRequestDto segment = new SegmentRequestDto();
+            segment.setSample(sample);
+            segment.setModalitiesToSegment(Arrays.asList(BiometricType.FINGER));
+            segment.setFlags(new HashMap<>());
+            body = segment;
+            break;
+        case "convertFormat":
+            ConvertFormatRequestDto convertFormat = new ConvertFormatRequestDto();
+            convertFormat.setSample(sample);
+            convertFormat.setSourceFormat("ISO19794_5_2011");
+            convertFormat.setTargetFormat("IMAGE/JPEG");
+            convertFormat.setSourceParams(new HashMap<>());
+            convertFormat.setTargetParams(new HashMap<>());
+            convertFormat.setModalitiesToConvert(Arrays.asList(BiometricType.FACE));
+            body = convertFormat;
+            break;
+        default:
+            throw new IllegalArgumentException(operation);
+        }
+        type = body.getClass();
+        encoded = BiometricSamples.envelope(body).getRequest();
+    }
+
+    @Benchmark
+    public String base64Decode() {
+        return Utils.base64Decode(encoded);
+    }
+
+    @Benchmark
+    public Object decodeThenBind() {
+        return BiometricSamples.GSON.fromJson(Utils.base64Decode(encoded), type);
+    }
+
+    @Benchmark
+    public Object streamingBind() throws Exception {
+        try (JsonReader jsonReader = new JsonReader(Utils.base64DecodeReader(encoded))) {
+            return BiometricSamples.GSON.fromJson(jsonReader, type);
+        }
+    }
+}
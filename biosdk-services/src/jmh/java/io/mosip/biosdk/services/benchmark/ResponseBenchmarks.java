@@ -0,0 +1,103 @@
+package io.mosip.biosdk.services.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+
+import io.mosip.biosdk.services.benchmark.BiometricSamples.FaceResolution;
+import io.mosip.biosdk.services.config.GsonConfig;
+import io.mosip.biosdk.services.dto.ErrorDto;
+import io.mosip.biosdk.services.dto.ResponseDto;
+import io.mosip.biosdk.services.utils.CborCodec;
+import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+
+/**
+ * Serialization of a {@link ResponseDto} carrying a full biometric record, as returned by
+ * extractTemplate, segment and convertFormat, in each wire format the service offers,
+ * and rendering of the record for request/response logging.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class ResponseBenchmarks {
+
+    @Param({ "VGA", "FHD", "UHD" })
+    public FaceResolution face;
+
+    private final Gson base64Gson = GsonConfig.newGson(true);
+    private final CborCodec cborCodec = new CborCodec();
+
+    private BiometricRecord record;
+    private ResponseDto<Response<BiometricRecord>> responseDto;
+    private Utils utils;
+
+    @Setup
+    public void setUp() throws Exception {
+        record = new BiometricSamples(42).capture(face);
+        Response<BiometricRecord> response = new Response<>();
+        response.setStatusCode(200);
+        response.setStatusMessage("OK");
+        response.setResponse(record);
+        responseDto = envelope(response);
+        utils = utils();
+    }
+
+    @Benchmark
+    public String jsonNumberArrays() {
+        return BiometricSamples.GSON.toJson(responseDto);
+    }
+
+    @Benchmark
+    public String jsonBase64() {
+        return base64Gson.toJson(responseDto);
+    }
+
+    @Benchmark
+    public byte[] cbor() {
+        return cborCodec.toBytes(responseDto);
+    }
+
+    @Benchmark
+    public String renderRecord() {
+        return utils.toString(record);
+    }
+
+    static <T> ResponseDto<T> envelope(T response) {
+        ResponseDto<T> responseDto = new ResponseDto<>();
+        responseDto.setVersion("1.0");
+        responseDto.setResponsetime("2021-03-30T08:43:17.707Z");
+        responseDto.setErrors(new ArrayList<ErrorDto>());
+        responseDto.setResponse(response);
+        return responseDto;
+    }
+
+    /**
+     * @return a {@link Utils} wired with the shared Gson, as Spring would
+     */
+    static Utils utils() throws ReflectiveOperationException {
+        Utils utils = new Utils();
+        Field gson = Utils.class.getDeclaredField("gson");
+        gson.setAccessible(true);
+        gson.set(utils, GsonConfig.newGson(false));
+        return utils;
+    }
+}
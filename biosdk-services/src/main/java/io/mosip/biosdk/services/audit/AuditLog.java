@@ -0,0 +1,213 @@
+package io.mosip.biosdk.services.audit;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.kernel.core.logger.spi.Logger;
+
+/**
+ * Writes request/response logs and failure stack traces off the request thread.
+ *
+ * Callers hand over what the event is about, the decoded request or response and the
+ * failure, which are not modified once decoded or returned. A single background thread
+ * hashes the biometric data, renders the events and writes them, so neither rendering
+ * nor logging I/O adds to request latency. Events wait in a queue bounded by count and
+ * by the memory they keep reachable; when it is full, {@link OverflowPolicy} decides
+ * what is given up.
+ */
+@Component
+public class AuditLog {
+
+    public enum OverflowPolicy {
+        /** The new event is dropped */
+        DROP_NEWEST,
+        /** The oldest queued event is dropped to make room */
+        DROP_OLDEST,
+        /** The request thread writes the event itself, nothing is lost */
+        CALLER_RUNS
+    }
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    /** Counted for a queued failure, whose stack trace is only rendered when written */
+    private static final long FAILURE_BYTES = 16 * 1024;
+
+    private Logger logger = LoggerConfig.logConfig(AuditLog.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${mosip.biosdk.audit.queue-size:4096}")
+    private int queueSize;
+
+    /** Bound of the memory kept reachable by queued events, mostly biometric data */
+    @Value("${mosip.biosdk.audit.queue-max-bytes:16777216}")
+    private long queueMaxBytes;
+
+    @Value("${mosip.biosdk.audit.overflow-policy:DROP_NEWEST}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${mosip.biosdk.audit.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<Event> queue;
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private Thread writer;
+    private volatile boolean running;
+
+    private Counter written;
+    private Counter droppedNewest;
+    private Counter droppedOldest;
+    private Counter failed;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueSize);
+        Gauge.builder("biosdk.audit.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("biosdk.audit.queue.bytes", queuedBytes, AtomicLong::get).register(meterRegistry);
+        written = Counter.builder("biosdk.audit.events").tag("outcome", "written").register(meterRegistry);
+        failed = Counter.builder("biosdk.audit.events").tag("outcome", "failed").register(meterRegistry);
+        droppedNewest = Counter.builder("biosdk.audit.dropped").tag("policy", "newest").register(meterRegistry);
+        droppedOldest = Counter.builder("biosdk.audit.dropped").tag("policy", "oldest").register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::drain, "biosdk-audit");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Writes the queued events before shutting down, for at most the shutdown timeout.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(shutdownTimeoutMs);
+    }
+
+    /**
+     * Logs the subject at debug level, prefixed with the given text. The subject is
+     * rendered on the writer thread, so it must not be modified afterwards.
+     *
+     * @param retainedBytes memory the subject keeps reachable while the event is queued
+     */
+    public <T> void debug(String prefix, T subject, Function<? super T, String> renderer, long retainedBytes) {
+        submit(new Event(prefix, () -> renderer.apply(subject), null, retainedBytes));
+    }
+
+    /**
+     * Logs the stack trace of a failure, described by the given text.
+     */
+    public void failure(String description, Throwable error) {
+        submit(new Event(description, null, error, FAILURE_BYTES));
+    }
+
+    private void submit(Event event) {
+        if (offer(event)) {
+            return;
+        }
+        switch (overflowPolicy) {
+        case DROP_OLDEST:
+            while (!offer(event)) {
+                if (poll() != null) {
+                    droppedOldest.increment();
+                }
+            }
+            break;
+        case CALLER_RUNS:
+            write(event);
+            break;
+        default:
+            droppedNewest.increment();
+        }
+    }
+
+    /**
+     * Queues the event within both bounds. An event larger than the byte bound is still
+     * queued when nothing else is, so that it is not dropped regardless of the load.
+     */
+    private boolean offer(Event event) {
+        long bytes = queuedBytes.addAndGet(event.bytes);
+        if (bytes > queueMaxBytes && bytes != event.bytes || !queue.offer(event)) {
+            queuedBytes.addAndGet(-event.bytes);
+            return false;
+        }
+        return true;
+    }
+
+    private Event poll() {
+        Event event = queue.poll();
+        if (event != null) {
+            queuedBytes.addAndGet(-event.bytes);
+        }
+        return event;
+    }
+
+    private void drain() {
+        try {
+            while (running || !queue.isEmpty()) {
+                Event event = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (event != null) {
+                    queuedBytes.addAndGet(-event.bytes);
+                    write(event);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(Event event) {
+        try {
+            if (event.error != null) {
+                logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, event.text, stackTrace(event.error));
+            } else {
+                logger.debug(event.text + event.message.get());
+            }
+            written.increment();
+        } catch (RuntimeException e) {
+            failed.increment();
+            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "audit: ", "could not write event: " + e.toString());
+        }
+    }
+
+    private static String stackTrace(Throwable error) {
+        StringWriter stackTrace = new StringWriter();
+        error.printStackTrace(new PrintWriter(stackTrace));
+        return stackTrace.toString();
+    }
+
+    private static final class Event {
+        private final String text;
+        private final Supplier<String> message;
+        private final Throwable error;
+        private final long bytes;
+
+        private Event(String text, Supplier<String> message, Throwable error, long bytes) {
+            this.text = text;
+            this.message = message;
+            this.error = error;
+            this.bytes = bytes;
+        }
+    }
+}
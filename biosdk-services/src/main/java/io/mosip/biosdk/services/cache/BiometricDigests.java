@@ -0,0 +1,77 @@
+package io.mosip.biosdk.services.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.entities.RegistryIDType;
+
+/**
+ * Builds cache keys from the content of biometric segments, so that the same biometric
+ * data sent again maps to the same key regardless of the request it arrived in.
+ */
+public final class BiometricDigests {
+
+    private BiometricDigests() {
+    }
+
+    /**
+     * @return a key made of the BDB digest, format, type and subtype of the segment, or
+     *         null if the segment has no BDB and therefore no stable identity
+     */
+    public static String segmentKey(BIR bir) {
+        if (bir == null || bir.getBdb() == null) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(128);
+        key.append(Utils.sha256Hex(bir.getBdb()));
+        BDBInfo bdbInfo = bir.getBdbInfo();
+        if (bdbInfo != null) {
+            RegistryIDType format = bdbInfo.getFormat();
+            key.append('|').append(format == null ? null : format.getOrganization())
+                    .append(':').append(format == null ? null : format.getType());
+            key.append('|').append(bdbInfo.getType());
+            key.append('|').append(bdbInfo.getSubtype());
+        }
+        return key.toString();
+    }
+
+    /**
+     * @return the keys of all segments of the record in record order, or null if the
+     *         record is empty or any segment has no key
+     */
+    public static String recordKey(BiometricRecord record) {
+        if (record == null || record.getSegments() == null || record.getSegments().isEmpty()) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(128 * record.getSegments().size());
+        for (BIR segment : record.getSegments()) {
+            String segmentKey = segmentKey(segment);
+            if (segmentKey == null) {
+                return null;
+            }
+            key.append(segmentKey).append(';');
+        }
+        return key.toString();
+    }
+
+    /**
+     * @return the modalities and flags of a request in a canonical, order independent form
+     */
+    public static String optionsKey(List<BiometricType> modalities, Map<String, String> flags) {
+        StringBuilder key = new StringBuilder(64);
+        if (modalities != null) {
+            modalities.stream().map(String::valueOf).sorted().forEach(modality -> key.append(modality).append(','));
+        }
+        key.append('|');
+        if (flags != null) {
+            key.append(new TreeMap<>(flags));
+        }
+        return key.toString();
+    }
+}
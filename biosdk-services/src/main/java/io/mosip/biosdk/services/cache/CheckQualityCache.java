@@ -0,0 +1,135 @@
+package io.mosip.biosdk.services.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.CheckQualityRequestDto;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.QualityScore;
+import io.mosip.kernel.biometrics.model.Response;
+
+/**
+ * Caches quality check results by the content of all segments of the sample, together
+ * with the requested modalities and flags. Only successful results are cached.
+ */
+@Component
+public class CheckQualityCache {
+
+    /** Request flag skipping the cache lookup; the fresh result still replaces the cached one */
+    public static final String BYPASS_FLAG = "bypassCache";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${mosip.biosdk.cache.check-quality.enabled:false}")
+    private boolean enabled;
+
+    @Value("${mosip.biosdk.cache.check-quality.max-entries:100000}")
+    private long maxEntries;
+
+    @Value("${mosip.biosdk.cache.check-quality.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    private Cache<String, Response<QualityCheck>> cache;
+
+    @PostConstruct
+    public void createCache() {
+        if (!enabled) {
+            return;
+        }
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "biosdk.check-quality");
+        Gauge.builder("biosdk.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", "biosdk.check-quality").register(meterRegistry);
+    }
+
+    /**
+     * Removes {@link #BYPASS_FLAG} from the request's flags, so that it does not reach the
+     * SDK, and answers from the cache unless it was set. Cached results are copied in and
+     * out, as callers and the SDK are free to modify the objects they are given.
+     */
+    public Response<QualityCheck> checkQuality(CheckQualityRequestDto request, Supplier<Response<QualityCheck>> sdkCall) {
+        Map<String, String> flags = request.getFlags();
+        boolean bypass = false;
+        if (flags != null && flags.containsKey(BYPASS_FLAG)) {
+            bypass = Boolean.parseBoolean(flags.get(BYPASS_FLAG));
+            flags = new HashMap<>(flags);
+            flags.remove(BYPASS_FLAG);
+            request.setFlags(flags);
+        }
+        String recordKey = cache == null ? null : BiometricDigests.recordKey(request.getSample());
+        if (recordKey == null) {
+            return sdkCall.get();
+        }
+        String key = recordKey + '|' + BiometricDigests.optionsKey(request.getModalitiesToCheck(), flags);
+
+        if (!bypass) {
+            Response<QualityCheck> cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return copyOf(cached);
+            }
+        }
+        Response<QualityCheck> response = sdkCall.get();
+        if (response != null && response.getStatusCode() != null
+                && response.getStatusCode() == ResponseStatus.SUCCESS.getStatusCode()
+                && response.getResponse() != null) {
+            cache.put(key, copyOf(response));
+        }
+        return response;
+    }
+
+    private static Response<QualityCheck> copyOf(Response<QualityCheck> response) {
+        QualityCheck qualityCheck = response.getResponse();
+        QualityCheck copy = new QualityCheck();
+        if (qualityCheck.getScores() != null) {
+            Map<BiometricType, QualityScore> scores = new EnumMap<>(BiometricType.class);
+            for (Map.Entry<BiometricType, QualityScore> entry : qualityCheck.getScores().entrySet()) {
+                scores.put(entry.getKey(), copyOf(entry.getValue()));
+            }
+            copy.setScores(scores);
+        }
+        copy.setAnalyticsInfo(copyOf(qualityCheck.getAnalyticsInfo()));
+        Response<QualityCheck> copied = new Response<>();
+        copied.setStatusCode(response.getStatusCode());
+        copied.setStatusMessage(response.getStatusMessage());
+        copied.setResponse(copy);
+        return copied;
+    }
+
+    private static QualityScore copyOf(QualityScore score) {
+        if (score == null) {
+            return null;
+        }
+        QualityScore copy = new QualityScore();
+        copy.setScore(score.getScore());
+        copy.setErrors(score.getErrors() == null ? null : new ArrayList<>(score.getErrors()));
+        copy.setAnalyticsInfo(copyOf(score.getAnalyticsInfo()));
+        return copy;
+    }
+
+    private static Map<String, String> copyOf(Map<String, String> map) {
+        return map == null ? null : new HashMap<>(map);
+    }
+}
@@ -0,0 +1,139 @@
+package io.mosip.biosdk.services.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.gson.Gson;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ExtractTemplateRequestDto;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+
+/**
+ * Caches extracted template segments by the content of the raw segment they were
+ * extracted from, together with the requested modalities and flags. A request whose
+ * segments are all cached is answered without calling the SDK.
+ *
+ * Segments are only cached when the SDK returns exactly one extracted segment per input
+ * segment, in input order, which is what the IBioApi contract describes.
+ *
+ * Entries are held in their JSON form, with base64 byte arrays, so that every response
+ * gets its own copy and the weight of an entry covers all of the segment, not only its
+ * data blocks.
+ */
+@Component
+public class ExtractTemplateCache {
+
+    /** Rough per entry overhead of the key and cache structures, added to the JSON */
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("base64Gson")
+    private Gson gson;
+
+    @Value("${mosip.biosdk.cache.extract-template.enabled:false}")
+    private boolean enabled;
+
+    @Value("${mosip.biosdk.cache.extract-template.max-bytes:268435456}")
+    private long maxBytes;
+
+    @Value("${mosip.biosdk.cache.extract-template.ttl-seconds:3600}")
+    private long ttlSeconds;
+
+    private Cache<String, byte[]> cache;
+
+    @PostConstruct
+    public void createCache() {
+        if (!enabled) {
+            return;
+        }
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, byte[] json) -> weightOf(key, json))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "biosdk.extract-template");
+    }
+
+    public Response<BiometricRecord> extract(ExtractTemplateRequestDto request, Supplier<Response<BiometricRecord>> sdkCall) {
+        BiometricRecord sample = request.getSample();
+        if (cache == null || sample == null || sample.getSegments() == null || sample.getSegments().isEmpty()) {
+            return sdkCall.get();
+        }
+        String options = BiometricDigests.optionsKey(request.getModalitiesToExtract(), request.getFlags());
+        List<BIR> segments = sample.getSegments();
+        List<String> keys = new ArrayList<>(segments.size());
+        for (BIR segment : segments) {
+            String segmentKey = BiometricDigests.segmentKey(segment);
+            if (segmentKey == null) {
+                return sdkCall.get();
+            }
+            keys.add(segmentKey + '|' + options);
+        }
+
+        List<BIR> cached = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            byte[] json = cache.getIfPresent(key);
+            if (json == null) {
+                break;
+            }
+            cached.add(gson.fromJson(new String(json, StandardCharsets.UTF_8), BIR.class));
+        }
+        if (cached.size() == keys.size()) {
+            return fromCache(sample, cached);
+        }
+
+        Response<BiometricRecord> response = sdkCall.get();
+        if (response != null && response.getStatusCode() != null
+                && response.getStatusCode() == ResponseStatus.SUCCESS.getStatusCode()
+                && response.getResponse() != null && response.getResponse().getSegments() != null
+                && response.getResponse().getSegments().size() == keys.size()) {
+            List<BIR> extracted = response.getResponse().getSegments();
+            for (int i = 0; i < keys.size(); i++) {
+                if (extracted.get(i) != null) {
+                    cache.put(keys.get(i), gson.toJson(extracted.get(i)).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return response;
+    }
+
+    private static Response<BiometricRecord> fromCache(BiometricRecord sample, List<BIR> segments) {
+        BiometricRecord record = new BiometricRecord();
+        record.setVersion(sample.getVersion());
+        record.setCbeffversion(sample.getCbeffversion());
+        record.setBirInfo(sample.getBirInfo());
+        record.setOthers(sample.getOthers());
+        record.setSegments(new ArrayList<>(segments));
+        Response<BiometricRecord> response = new Response<>();
+        response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
+        response.setStatusMessage(ResponseStatus.SUCCESS.getStatusMessage());
+        response.setResponse(record);
+        return response;
+    }
+
+    private static int weightOf(String key, byte[] json) {
+        long weight = ENTRY_OVERHEAD_BYTES + 2L * key.length() + json.length;
+        return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+}
@@ -0,0 +1,99 @@
+package io.mosip.biosdk.services.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+/**
+ * HTTP content codings the service decodes in requests and can apply to responses.
+ */
+public enum ContentEncoding {
+
+    GZIP("gzip", "x-gzip") {
+        @Override
+        public InputStream decode(InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+
+        @Override
+        public OutputStream encode(OutputStream out, int level) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE) {
+                {
+                    def.setLevel(level > 0 ? Math.min(level, Deflater.BEST_COMPRESSION) : Deflater.DEFAULT_COMPRESSION);
+                }
+            };
+        }
+    },
+
+    ZSTD("zstd") {
+        @Override
+        public InputStream decode(InputStream in) throws IOException {
+            return new ZstdInputStream(in);
+        }
+
+        @Override
+        public OutputStream encode(OutputStream out, int level) throws IOException {
+            return level > 0 ? new ZstdOutputStream(out, level) : new ZstdOutputStream(out);
+        }
+
+        @Override
+        boolean isAvailable() {
+            try {
+                new ZstdOutputStream(new ByteArrayOutputStream()).close();
+                return true;
+            } catch (IOException | LinkageError e) {
+                return false;
+            }
+        }
+    };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String[] names;
+
+    ContentEncoding(String... names) {
+        this.names = names;
+    }
+
+    /** The name of the coding in Content-Encoding headers */
+    public String getName() {
+        return names[0];
+    }
+
+    public abstract InputStream decode(InputStream in) throws IOException;
+
+    /**
+     * @param level compression level of the coding, 0 or less for its default
+     */
+    public abstract OutputStream encode(OutputStream out, int level) throws IOException;
+
+    /** False when the native library of the coding cannot be loaded on this platform */
+    boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * @return the coding of the name, null for "identity", none, or an unknown coding
+     */
+    public static ContentEncoding of(String name) {
+        if (name == null) {
+            return null;
+        }
+        String trimmed = name.trim();
+        for (ContentEncoding encoding : values()) {
+            for (String alias : encoding.names) {
+                if (alias.equalsIgnoreCase(trimmed)) {
+                    return encoding;
+                }
+            }
+        }
+        return null;
+    }
+}
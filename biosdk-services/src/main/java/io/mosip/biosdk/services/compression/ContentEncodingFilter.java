@@ -0,0 +1,555 @@
+package io.mosip.biosdk.services.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Decodes gzip and zstd request bodies while they are read, and compresses responses
+ * with the coding the client prefers among the configured ones. A response is buffered
+ * up to the minimum size first, so that small responses go out uncompressed.
+ *
+ * Decoded request bodies are limited in size, so that a small compressed body cannot
+ * expand without bound. A request whose body goes over the limit is answered with 413,
+ * whatever status the application sets after its read failed.
+ *
+ * Asynchronous responses are completed on the async dispatch, so the filter must be
+ * registered for async dispatches as well.
+ */
+public class ContentEncodingFilter extends OncePerRequestFilter {
+
+    private static final String RESPONSE_ATTRIBUTE = ContentEncodingFilter.class.getName() + ".response";
+
+    private final Set<ContentEncoding> availableEncodings = EnumSet.noneOf(ContentEncoding.class);
+    private final List<ContentEncoding> responseEncodings;
+    private final int level;
+    private final int minResponseSize;
+    private final long maxDecodedBytes;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param responseEncodings codings responses may be compressed with, by preference,
+     *                          none to leave responses uncompressed
+     * @param level             compression level, 0 for the default of each coding
+     * @param minResponseSize   responses smaller than this are not compressed
+     * @param maxDecodedBytes   largest decoded request body, 0 for no limit
+     */
+    public ContentEncodingFilter(List<ContentEncoding> responseEncodings, int level, int minResponseSize,
+            long maxDecodedBytes, MeterRegistry meterRegistry) {
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            if (encoding.isAvailable()) {
+                availableEncodings.add(encoding);
+            }
+        }
+        this.responseEncodings = new ArrayList<>();
+        for (ContentEncoding encoding : responseEncodings) {
+            if (availableEncodings.contains(encoding)) {
+                this.responseEncodings.add(encoding);
+            } else {
+                logger.warn("Response compression with " + encoding.getName() + " is not available on this platform");
+            }
+        }
+        this.level = level;
+        this.minResponseSize = minResponseSize;
+        this.maxDecodedBytes = maxDecodedBytes;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpServletResponse original = response;
+        DecodingRequest decoding = null;
+        if (!isAsyncDispatch(request)) {
+            String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+            if (contentEncoding != null && !"identity".equalsIgnoreCase(contentEncoding.trim())) {
+                ContentEncoding encoding = ContentEncoding.of(contentEncoding);
+                if (encoding == null) {
+                    response.sendError(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(),
+                            "Unsupported Content-Encoding: " + contentEncoding);
+                    return;
+                }
+                if (!availableEncodings.contains(encoding)) {
+                    response.sendError(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(),
+                            "Content-Encoding " + encoding.getName() + " is not available on this platform");
+                    return;
+                }
+                decoding = new DecodingRequest(request, encoding, maxDecodedBytes);
+                request = decoding;
+                response = new LimitedResponse(response, decoding);
+            }
+            ContentEncoding responseEncoding = negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            if (responseEncoding != null) {
+                CompressingResponse compressing = new CompressingResponse(response, responseEncoding);
+                request.setAttribute(RESPONSE_ATTRIBUTE, compressing);
+                response = compressing;
+            }
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            if (decoding == null || !decoding.tooLarge || original.isCommitted()) {
+                throw e;
+            }
+            original.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), decoding.tooLargeMessage());
+            return;
+        }
+        CompressingResponse compressing = (CompressingResponse) request.getAttribute(RESPONSE_ATTRIBUTE);
+        if (compressing != null && !request.isAsyncStarted()) {
+            compressing.finish();
+        }
+    }
+
+    /**
+     * @return the configured coding with the highest quality in the Accept-Encoding
+     *         header, the first configured one on ties, null if none is acceptable
+     */
+    ContentEncoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || responseEncodings.isEmpty()) {
+            return null;
+        }
+        ContentEncoding best = null;
+        double bestQuality = 0;
+        for (ContentEncoding encoding : responseEncodings) {
+            double quality = quality(acceptEncoding, encoding);
+            if (quality > bestQuality) {
+                best = encoding;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    private static double quality(String acceptEncoding, ContentEncoding encoding) {
+        double wildcard = 0;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim();
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if ("*".equals(coding)) {
+                wildcard = quality;
+            } else if (ContentEncoding.of(coding) == encoding) {
+                return quality;
+            }
+        }
+        return wildcard;
+    }
+
+    /**
+     * Reads the decoded body; the length and coding of the encoded body are hidden. Reads
+     * fail once the decoded body goes over the limit.
+     */
+    private static final class DecodingRequest extends HttpServletRequestWrapper {
+        private final ContentEncoding encoding;
+        private final long maxDecodedBytes;
+        private ServletInputStream inputStream;
+        private long decodedBytes;
+        private volatile boolean tooLarge;
+
+        private DecodingRequest(HttpServletRequest request, ContentEncoding encoding, long maxDecodedBytes) {
+            super(request);
+            this.encoding = encoding;
+            this.maxDecodedBytes = maxDecodedBytes;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                ServletInputStream encoded = super.getInputStream();
+                InputStream decoded = new FilterInputStream(encoding.decode(encoded)) {
+                    @Override
+                    public int read() throws IOException {
+                        int b = in.read();
+                        if (b >= 0) {
+                            count(1);
+                        }
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        int read = in.read(b, off, len);
+                        count(read);
+                        return read;
+                    }
+
+                    @Override
+                    public long skip(long n) throws IOException {
+                        long skipped = in.skip(n);
+                        count(skipped);
+                        return skipped;
+                    }
+                };
+                inputStream = new ServletInputStream() {
+                    private boolean finished;
+
+                    @Override
+                    public int read() throws IOException {
+                        int b = decoded.read();
+                        finished = b < 0;
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        int read = decoded.read(b, off, len);
+                        finished = read < 0;
+                        return read;
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        decoded.close();
+                    }
+
+                    @Override
+                    public boolean isFinished() {
+                        return finished;
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setReadListener(ReadListener readListener) {
+                        throw new UnsupportedOperationException("Non-blocking reads of encoded request bodies");
+                    }
+                };
+            }
+            return inputStream;
+        }
+
+        private void count(long read) throws IOException {
+            if (read <= 0 || maxDecodedBytes <= 0) {
+                return;
+            }
+            decodedBytes += read;
+            if (decodedBytes > maxDecodedBytes) {
+                tooLarge = true;
+                throw new IOException(tooLargeMessage());
+            }
+        }
+
+        private String tooLargeMessage() {
+            return "Decoded request body exceeds " + maxDecodedBytes + " bytes";
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isHidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isHidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = new ArrayList<>();
+            for (Enumeration<String> e = super.getHeaderNames(); e.hasMoreElements();) {
+                String name = e.nextElement();
+                if (!isHidden(name)) {
+                    names.add(name);
+                }
+            }
+            return Collections.enumeration(names);
+        }
+
+        private static boolean isHidden(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    /**
+     * Sends 413 in place of the status or error the application answers with once the
+     * decoded request body went over the limit, typically 400 for the body it could not
+     * read. The response is used for the async dispatch as well.
+     */
+    private static final class LimitedResponse extends HttpServletResponseWrapper {
+        private final DecodingRequest request;
+
+        private LimitedResponse(HttpServletResponse response, DecodingRequest request) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            super.setStatus(request.tooLarge ? HttpStatus.PAYLOAD_TOO_LARGE.value() : sc);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            sendError(sc, null);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            if (request.tooLarge) {
+                super.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), request.tooLargeMessage());
+            } else if (msg == null) {
+                super.sendError(sc);
+            } else {
+                super.sendError(sc, msg);
+            }
+        }
+    }
+
+    /**
+     * Holds back the content length set by the application until it is known whether
+     * the body is compressed.
+     */
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+        private final ContentEncoding encoding;
+        private CompressingOutputStream outputStream;
+        private PrintWriter writer;
+
+        private CompressingResponse(HttpServletResponse response, ContentEncoding encoding) {
+            super(response);
+            this.encoding = encoding;
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            return compressingOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called");
+                }
+                writer = new PrintWriter(new OutputStreamWriter(compressingOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            } else if (outputStream != null) {
+                outputStream.flush();
+            }
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            // the length of the body is only known once it is written
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                super.setIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (outputStream != null) {
+                outputStream.pending.reset();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            if (outputStream != null) {
+                outputStream.pending.reset();
+            }
+        }
+
+        private CompressingOutputStream compressingOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CompressingOutputStream(this, getResponse().getOutputStream());
+            }
+            return outputStream;
+        }
+
+        /** Writes out what is left of the body */
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.finish();
+            }
+        }
+    }
+
+    private final class CompressingOutputStream extends ServletOutputStream {
+        private final CompressingResponse response;
+        private final ServletOutputStream out;
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private OutputStream compressor;
+        private boolean finished;
+
+        private CompressingOutputStream(CompressingResponse response, ServletOutputStream out) {
+            this.response = response;
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (finished) {
+                throw new IOException("Response body already written");
+            }
+            if (compressor == null && pending.size() + len < minResponseSize) {
+                pending.write(b, off, len);
+                return;
+            }
+            if (compressor == null) {
+                startCompressing();
+            }
+            compressor.write(b, off, len);
+        }
+
+        /** Buffered bytes are kept until it is known whether the body is compressed */
+        @Override
+        public void flush() throws IOException {
+            if (compressor != null) {
+                compressor.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+            out.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return out.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            out.setWriteListener(writeListener);
+        }
+
+        private void startCompressing() throws IOException {
+            response.getResponse().setContentLength(-1);
+            ((HttpServletResponse) response.getResponse()).setHeader(HttpHeaders.CONTENT_ENCODING, response.encoding.getName());
+            compressor = response.encoding.encode(new FilterOutputStream(out) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    out.flush();
+                }
+            }, level);
+            pending.writeTo(compressor);
+            pending.reset();
+            meterRegistry.counter("biosdk.compression.responses", "encoding", response.encoding.getName()).increment();
+        }
+
+        private void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (compressor != null) {
+                compressor.close();
+                return;
+            }
+            if (pending.size() > 0) {
+                meterRegistry.counter("biosdk.compression.responses", "encoding", "identity").increment();
+                response.getResponse().setContentLength(pending.size());
+                pending.writeTo(out);
+            }
+            out.flush();
+        }
+    }
+}
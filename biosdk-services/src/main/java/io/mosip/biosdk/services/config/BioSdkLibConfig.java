@@ -1,16 +1,31 @@
 package io.mosip.biosdk.services.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.mosip.biosdk.services.sdk.PooledBioApi;
+import io.mosip.biosdk.services.sdk.RoutingBioApi;
+import io.mosip.biosdk.services.sdk.SdkClassLoader;
+import io.mosip.kernel.biometrics.constant.BiometricType;
 import io.mosip.kernel.biometrics.spi.IBioApiV2;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.EnvironmentAware;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.core.env.Environment;
 
 import javax.annotation.PostConstruct;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 public class BioSdkLibConfig {
@@ -18,6 +33,23 @@ public class BioSdkLibConfig {
     @Autowired
     private Environment env;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Pool SDK instances instead of sharing one instance across all request threads */
+    @Value("${mosip.biosdk.sdk-pool.enabled:false}")
+    private boolean sdkPoolEnabled;
+
+    @Value("${mosip.biosdk.sdk-pool.size-per-core:1.0}")
+    private double sdkPoolSizePerCore;
+
+    @Value("${mosip.biosdk.sdk-pool.borrow-timeout-ms:30000}")
+    private long sdkPoolBorrowTimeoutMillis;
+
+    /** Host several SDKs, each for some modalities, see {@link #routingBioApi()} */
+    @Value("${mosip.biosdk.routing.enabled:false}")
+    private boolean routingEnabled;
+
     public BioSdkLibConfig() {
     }
 
@@ -36,14 +68,122 @@ public class BioSdkLibConfig {
     @Bean
     @Lazy
     public IBioApiV2 iBioApi() throws ClassNotFoundException, InstantiationException, IllegalAccessException {
+        if (routingEnabled) {
+            return routingBioApi();
+        }
+        if (!sdkPoolEnabled) {
+            return newBioApiInstance();
+        }
+        int poolSize = Math.max(1, (int) Math.round(sdkPoolSizePerCore * Runtime.getRuntime().availableProcessors()));
+        logger.info("Bio SDK instance pool size: " + poolSize);
+        return new PooledBioApi(() -> {
+            try {
+                return newBioApiInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Unable to create Bio SDK instance", e);
+            }
+        }, poolSize, sdkPoolBorrowTimeoutMillis, meterRegistry);
+    }
+
+    private IBioApiV2 newBioApiInstance() throws ClassNotFoundException, InstantiationException, IllegalAccessException {
     	String sdkClass = this.env.getProperty("biosdk_bioapi_impl");
 		logger.info("Biosdk class: " + sdkClass);
     	if (StringUtils.isNotBlank(sdkClass)) {
             logger.debug("instance of Bio SDK is created");
-            return (IBioApiV2)Class.forName(sdkClass).newInstance();
+            return newBioApiInstance(sdkClass, getClass().getClassLoader());
         } else {
             logger.debug("no Bio SDK is provided");
             throw new RuntimeException("No Bio SDK is provided");
         }
     }
+
+    private IBioApiV2 newBioApiInstance(String sdkClass, ClassLoader classLoader)
+            throws ClassNotFoundException, InstantiationException, IllegalAccessException {
+        IBioApiV2 bioApi = (IBioApiV2) Class.forName(sdkClass, true, classLoader).newInstance();
+        if (bioApi instanceof EnvironmentAware) {
+            ((EnvironmentAware) bioApi).setEnvironment(env);
+        }
+        return bioApi;
+    }
+
+    /**
+     * Loads every SDK listed in mosip.biosdk.routing.sdks in its own class loader and
+     * routes the modalities it is configured for to it, e.g. for an SDK named finger:
+     * mosip.biosdk.routing.sdk.finger.class, .modalities (FINGER), .path (jars or
+     * directories, by default the directory finger in each loader.path entry), .threads
+     * and .queue-size. Other modalities go to biosdk_bioapi_impl, when set. With the SDK
+     * instance pool enabled every SDK gets a pool sized to its threads.
+     */
+    private RoutingBioApi routingBioApi() throws ClassNotFoundException, InstantiationException, IllegalAccessException {
+        Map<BiometricType, RoutingBioApi.Route> routes = new EnumMap<>(BiometricType.class);
+        for (String name : env.getProperty("mosip.biosdk.routing.sdks", String[].class, new String[0])) {
+            String prefix = "mosip.biosdk.routing.sdk." + name.trim() + ".";
+            String sdkClass = env.getRequiredProperty(prefix + "class");
+            SdkClassLoader classLoader = SdkClassLoader.of(name.trim(), sdkPaths(name.trim(), prefix),
+                    getClass().getClassLoader());
+            logger.info("Biosdk class of " + name.trim() + ": " + sdkClass + " from " + Arrays.toString(classLoader.getURLs()));
+            ThreadPoolExecutor executor = routeExecutor(name.trim(), prefix);
+            RoutingBioApi.Route route = new RoutingBioApi.Route(name.trim(),
+                    routeSdk(name.trim(), sdkClass, classLoader, executor), classLoader, executor);
+            for (String modality : env.getRequiredProperty(prefix + "modalities", String[].class)) {
+                if (routes.put(BiometricType.valueOf(modality.trim().toUpperCase()), route) != null) {
+                    throw new IllegalStateException("Modality routed to more than one Bio SDK: " + modality);
+                }
+            }
+        }
+        RoutingBioApi.Route defaultRoute = null;
+        String defaultSdkClass = env.getProperty("biosdk_bioapi_impl");
+        if (StringUtils.isNotBlank(defaultSdkClass)) {
+            ThreadPoolExecutor executor = routeExecutor("default", "mosip.biosdk.routing.default.");
+            defaultRoute = new RoutingBioApi.Route("default",
+                    routeSdk("default", defaultSdkClass, getClass().getClassLoader(), executor),
+                    getClass().getClassLoader(), executor);
+        }
+        return new RoutingBioApi(routes, defaultRoute, meterRegistry);
+    }
+
+    /**
+     * With mosip.biosdk.sdk-pool.enabled, a pool of one instance per thread of the route,
+     * so that calls of one SDK never share an instance; otherwise a single instance.
+     */
+    private IBioApiV2 routeSdk(String name, String sdkClass, ClassLoader classLoader, ThreadPoolExecutor executor)
+            throws ClassNotFoundException, InstantiationException, IllegalAccessException {
+        if (!sdkPoolEnabled) {
+            return newBioApiInstance(sdkClass, classLoader);
+        }
+        logger.info("Bio SDK instance pool size of " + name + ": " + executor.getMaximumPoolSize());
+        return new PooledBioApi(() -> {
+            try {
+                return newBioApiInstance(sdkClass, classLoader);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Unable to create Bio SDK instance", e);
+            }
+        }, executor.getMaximumPoolSize(), sdkPoolBorrowTimeoutMillis, Tags.of("sdk", name), meterRegistry);
+    }
+
+    private List<String> sdkPaths(String name, String prefix) {
+        String[] paths = env.getProperty(prefix + "path", String[].class);
+        if (paths != null && paths.length > 0) {
+            return Arrays.asList(paths);
+        }
+        List<String> defaults = new ArrayList<>();
+        for (String loaderPath : env.getProperty("loader.path", String[].class, new String[0])) {
+            File directory = new File(loaderPath.trim(), name);
+            if (directory.isDirectory()) {
+                defaults.add(directory.getPath());
+            }
+        }
+        if (defaults.isEmpty()) {
+            throw new IllegalStateException("No path for Bio SDK " + name + ": set " + prefix + "path or add a directory "
+                    + name + " to a loader.path entry");
+        }
+        return defaults;
+    }
+
+    private ThreadPoolExecutor routeExecutor(String name, String prefix) {
+        return ExecutorConfig.newBoundedExecutor("biosdk-sdk-" + name + "-",
+                env.getProperty(prefix + "threads", Integer.class, 0),
+                env.getProperty(prefix + "queue-size", Integer.class, 100),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
 }
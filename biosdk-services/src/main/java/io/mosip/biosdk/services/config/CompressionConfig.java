@@ -0,0 +1,64 @@
+package io.mosip.biosdk.services.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.DispatcherType;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.biosdk.services.compression.ContentEncoding;
+import io.mosip.biosdk.services.compression.ContentEncodingFilter;
+
+/**
+ * Compressed request and response bodies, see {@link ContentEncodingFilter}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "mosip.biosdk.compression.enabled", havingValue = "true")
+public class CompressionConfig {
+
+    /** Codings responses may be compressed with, in order of preference, empty to only decode requests */
+    @Value("${mosip.biosdk.compression.response-encodings:zstd,gzip}")
+    private String[] responseEncodings;
+
+    /** Compression level, 0 for the default of each coding (6 for gzip, 3 for zstd) */
+    @Value("${mosip.biosdk.compression.level:0}")
+    private int level;
+
+    @Value("${mosip.biosdk.compression.min-response-size:2048}")
+    private int minResponseSize;
+
+    /** Largest decoded request body, 0 for no limit; larger requests are answered with 413 */
+    @Value("${mosip.biosdk.compression.max-decoded-bytes:134217728}")
+    private long maxDecodedBytes;
+
+    /**
+     * Registered ahead of the security filters, and for async dispatches so that
+     * streamed responses are completed.
+     */
+    @Bean
+    public FilterRegistrationBean<ContentEncodingFilter> contentEncodingFilter(MeterRegistry meterRegistry) {
+        List<ContentEncoding> encodings = new ArrayList<>();
+        for (String name : responseEncodings) {
+            if (name.trim().isEmpty()) {
+                continue;
+            }
+            ContentEncoding encoding = ContentEncoding.of(name);
+            if (encoding == null) {
+                throw new IllegalArgumentException("Unsupported response encoding: " + name);
+            }
+            encodings.add(encoding);
+        }
+        FilterRegistrationBean<ContentEncodingFilter> registration = new FilterRegistrationBean<>(
+                new ContentEncodingFilter(encodings, level, minResponseSize, maxDecodedBytes, meterRegistry));
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,115 @@
+package io.mosip.biosdk.services.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /** Number of batch worker threads, defaults to the number of available processors */
+    @Value("${mosip.biosdk.batch.threads:0}")
+    private int batchThreads;
+
+    @Value("${mosip.biosdk.batch.queue-size:1000}")
+    private int batchQueueSize;
+
+    @Value("${mosip.biosdk.match.gallery-sharding.threads:0}")
+    private int galleryShardThreads;
+
+    @Value("${mosip.biosdk.match.gallery-sharding.queue-size:1000}")
+    private int galleryShardQueueSize;
+
+    @Value("${mosip.biosdk.fan-out.threads:0}")
+    private int fanOutThreads;
+
+    @Value("${mosip.biosdk.fan-out.queue-size:1000}")
+    private int fanOutQueueSize;
+
+    /** Threads running SDK work off the servlet threads, defaults to the number of available processors */
+    @Value("${mosip.biosdk.async.threads:0}")
+    private int computeThreads;
+
+    @Value("${mosip.biosdk.async.queue-size:1000}")
+    private int computeQueueSize;
+
+    /** Threads writing streamed responses, defaults to twice the number of available processors */
+    @Value("${mosip.biosdk.async.writer-threads:0}")
+    private int writerThreads;
+
+    @Value("${mosip.biosdk.async.writer-queue-size:1000}")
+    private int writerQueueSize;
+
+    /**
+     * Bounded executor for batch items. Items that do not fit the queue are rejected, as
+     * by the compute executor, rather than run on the servlet thread.
+     */
+    @Bean(name = "batchExecutor", destroyMethod = "shutdown")
+    public ExecutorService batchExecutor() {
+        return newBoundedExecutor("biosdk-batch-", batchThreads, batchQueueSize,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Executor matching gallery chunks of a single match call. Chunks that do not fit
+     * the queue are matched on the request thread.
+     */
+    @Bean(name = "galleryShardExecutor", destroyMethod = "shutdown")
+    public ExecutorService galleryShardExecutor() {
+        return newBoundedExecutor("biosdk-gallery-shard-", galleryShardThreads, galleryShardQueueSize,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Executor processing the modalities or segments of a single record concurrently.
+     * Parts that do not fit the queue are processed on the request thread.
+     */
+    @Bean(name = "fanOutExecutor", destroyMethod = "shutdown")
+    public ExecutorService fanOutExecutor() {
+        return newBoundedExecutor("biosdk-fan-out-", fanOutThreads, fanOutQueueSize,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Executor running decoding and SDK calls of the asynchronous endpoints when operation
+     * bulkheads are disabled. A full queue is rejected rather than run on the servlet thread.
+     */
+    @Bean(name = "sdkComputeExecutor", destroyMethod = "shutdown")
+    public ExecutorService sdkComputeExecutor() {
+        return newBoundedExecutor("biosdk-compute-", computeThreads, computeQueueSize,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Executor writing streamed response bodies to the client. Writes that do not fit the
+     * queue are done on the container thread.
+     */
+    @Bean(name = "responseWriterExecutor")
+    public AsyncTaskExecutor responseWriterExecutor() {
+        int poolSize = writerThreads > 0 ? writerThreads : 2 * Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(Math.max(1, writerQueueSize));
+        executor.setThreadNamePrefix("biosdk-writer-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    static ThreadPoolExecutor newBoundedExecutor(String threadNamePrefix, int threads, int queueSize,
+            RejectedExecutionHandler rejectedExecutionHandler) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+                new CustomizableThreadFactory(threadNamePrefix), rejectedExecutionHandler);
+    }
+}
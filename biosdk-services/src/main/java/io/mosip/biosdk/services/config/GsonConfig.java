@@ -0,0 +1,39 @@
+package io.mosip.biosdk.services.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import io.mosip.biosdk.services.json.BiometricTypeAdapterFactory;
+import io.mosip.biosdk.services.utils.Base64ByteArrayAdapter;
+
+/**
+ * The Gson instances shared by the service. Gson instances are thread safe and cache
+ * their type adapters, so one instance per encoding is created and injected everywhere.
+ */
+@Configuration
+public class GsonConfig {
+
+    /** Writes byte arrays as JSON arrays, the encoding existing clients expect */
+    @Bean
+    @Primary
+    public Gson gson() {
+        return newGson(false);
+    }
+
+    /** Writes byte arrays as base64 strings */
+    @Bean
+    public Gson base64Gson() {
+        return newGson(true);
+    }
+
+    public static Gson newGson(boolean base64Bytes) {
+        return new GsonBuilder().serializeNulls()
+                .registerTypeAdapter(byte[].class, new Base64ByteArrayAdapter(base64Bytes))
+                .registerTypeAdapterFactory(new BiometricTypeAdapterFactory())
+                .create();
+    }
+}
@@ -1,8 +1,12 @@
 package io.mosip.biosdk.services.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurationSupport;
 import springfox.documentation.builders.PathSelectors;
@@ -27,6 +31,14 @@ public class SwaggerConfig extends WebMvcConfigurationSupport {
     @Value("${server.port:9092}")
     private int serverPort;
 
+    /** Upper bound for asynchronous requests, above the per operation timeouts */
+    @Value("${mosip.biosdk.async.request-timeout-ms:120000}")
+    private long asyncRequestTimeoutMillis;
+
+    @Autowired
+    @Qualifier("responseWriterExecutor")
+    private AsyncTaskExecutor responseWriterExecutor;
+
     String proto = "http";
     String host = "localhost";
     int port = -1;
@@ -55,4 +67,10 @@ public class SwaggerConfig extends WebMvcConfigurationSupport {
                 .addResourceLocations("classpath:/META-INF/resources/webjars/");
     }
 
+    @Override
+    protected void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncRequestTimeoutMillis);
+        configurer.setTaskExecutor(responseWriterExecutor);
+    }
+
 }
@@ -3,4 +3,11 @@ package io.mosip.biosdk.services.constants;
 public class AppConstants {
     public static final String LOGGER_SESSIONID = "BIO-SDK-PROVIDER";
     public static final String LOGGER_IDTYPE = "REGISTRATION / AUTH";
+
+    /** Request header selecting how byte arrays are written in the response. */
+    public static final String BYTE_ENCODING_HEADER = "X-Byte-Encoding";
+    public static final String BYTE_ENCODING_BASE64 = "base64";
+
+    /** Binary wire format carrying the envelope and the inner request as one document. */
+    public static final String APPLICATION_CBOR_VALUE = "application/cbor";
 }
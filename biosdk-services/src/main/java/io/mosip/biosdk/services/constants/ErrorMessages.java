@@ -3,7 +3,17 @@ package io.mosip.biosdk.services.constants;
 public enum ErrorMessages {
     NO_BIOSDK_PROVIDER_FOUND("No BioSDK provider found with the given version"),
     BIOSDK_LIB_EXCEPTION("Exception thrown by BioSDK library"),
+    SDK_INSTANCE_UNAVAILABLE("No BioSDK instance became available in time"),
+    TOO_MANY_REQUESTS("Too many requests queued for the operation"),
+    REQUEST_TIMEOUT("Operation did not complete in time"),
     INVALID_REQUEST_BODY("Unable to parse request body"),
+    INVALID_BATCH_OPERATION("Operation is not supported in a batch"),
+    BATCH_SIZE_EXCEEDED("Batch exceeds the maximum number of items"),
+    IDEMPOTENCY_KEY_REUSED("Idempotency key was already used with a different request body"),
+    GALLERY_DISABLED("Gallery registry is not enabled"),
+    GALLERY_RECORD_NOT_FOUND("No gallery record is registered with the given id"),
+    GALLERY_RECORD_EXISTS("A gallery record is already registered with the given id"),
+    GALLERY_STORAGE_ERROR("Unable to access gallery storage"),
     UNCHECKED_EXCEPTION("UNCHECKED_EXCEPTION");
 
     private ErrorMessages(String message) {
@@ -0,0 +1,53 @@
+package io.mosip.biosdk.services.constants;
+
+import java.util.function.BiFunction;
+
+import io.mosip.biosdk.services.dto.RequestDto;
+import io.mosip.biosdk.services.spi.BioSdkServiceProvider;
+
+/**
+ * Operations exposed by a {@link BioSdkServiceProvider}, by the name used in batch requests.
+ */
+public enum SdkOperation {
+    INIT("init", false, BioSdkServiceProvider::init),
+    CHECK_QUALITY("checkQuality", true, BioSdkServiceProvider::checkQuality),
+    MATCH("match", true, BioSdkServiceProvider::match),
+    IDENTIFY("identify", true, BioSdkServiceProvider::identify),
+    EXTRACT_TEMPLATE("extractTemplate", true, BioSdkServiceProvider::extractTemplate),
+    SEGMENT("segment", true, BioSdkServiceProvider::segment),
+    CONVERT_FORMAT("convertFormat", true, BioSdkServiceProvider::convertFormat);
+
+    private final String operationName;
+    private final boolean batchable;
+    private final BiFunction<BioSdkServiceProvider, RequestDto, Object> invoker;
+
+    SdkOperation(String operationName, boolean batchable, BiFunction<BioSdkServiceProvider, RequestDto, Object> invoker) {
+        this.operationName = operationName;
+        this.batchable = batchable;
+        this.invoker = invoker;
+    }
+
+    public String getOperationName() {
+        return operationName;
+    }
+
+    public boolean isBatchable() {
+        return batchable;
+    }
+
+    public Object invoke(BioSdkServiceProvider provider, RequestDto request) {
+        return invoker.apply(provider, request);
+    }
+
+    /**
+     * @return the operation with the given name, or null if there is none
+     */
+    public static SdkOperation fromName(String operationName) {
+        for (SdkOperation operation : values()) {
+            if (operation.operationName.equals(operationName)) {
+                return operation;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,99 @@
+package io.mosip.biosdk.services.controller;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.google.gson.Gson;
+
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.biosdk.services.dispatch.RequestDispatcher;
+import io.mosip.biosdk.services.dto.GalleryRecordRequestDto;
+import io.mosip.biosdk.services.dto.RequestDto;
+import io.mosip.biosdk.services.dto.ResponseDto;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.biosdk.services.gallery.GalleryRegistry;
+import io.mosip.kernel.core.logger.spi.Logger;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+
+@RestController
+@RequestMapping("/gallery")
+@Api(tags = "Gallery")
+@CrossOrigin("*")
+public class GalleryController {
+
+    private Logger logger = LoggerConfig.logConfig(GalleryController.class);
+
+    @Autowired
+    private GalleryRegistry galleryRegistry;
+
+    @Autowired
+    private RequestDispatcher dispatcher;
+
+    @Autowired
+    private Gson gson;
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Register gallery record")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Gallery record registered") })
+    public ResponseEntity<String> register(@RequestBody(required = true) RequestDto request) {
+        ResponseDto responseDto;
+        try {
+            GalleryRecordRequestDto recordRequest = galleryRegistry.decode(request);
+            galleryRegistry.register(recordRequest.getGalleryId(), recordRequest.getRecord());
+            responseDto = dispatcher.successResponse(request.getVersion(), recordRequest.getGalleryId());
+        } catch (BioSDKException e) {
+            responseDto = errorResponse(request.getVersion(), e);
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
+    }
+
+    @PutMapping(path = "/{galleryId}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Update gallery record")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Gallery record updated") })
+    public ResponseEntity<String> update(@PathVariable("galleryId") String galleryId,
+            @RequestBody(required = true) RequestDto request) {
+        ResponseDto responseDto;
+        try {
+            galleryRegistry.update(galleryId, galleryRegistry.decode(request).getRecord());
+            responseDto = dispatcher.successResponse(request.getVersion(), galleryId);
+        } catch (BioSDKException e) {
+            responseDto = errorResponse(request.getVersion(), e);
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
+    }
+
+    @DeleteMapping(path = "/{galleryId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Delete gallery record")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Gallery record deleted") })
+    public ResponseEntity<String> delete(@PathVariable("galleryId") String galleryId) {
+        ResponseDto responseDto;
+        try {
+            galleryRegistry.delete(galleryId);
+            responseDto = dispatcher.successResponse(null, galleryId);
+        } catch (BioSDKException e) {
+            responseDto = errorResponse(null, e);
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
+    }
+
+    private ResponseDto errorResponse(String version, BioSDKException e) {
+        logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "BioSDKException: ", e.getMessage());
+        return dispatcher.errorResponse(version, e);
+    }
+}
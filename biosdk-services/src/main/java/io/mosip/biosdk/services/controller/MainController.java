@@ -1,14 +1,16 @@
 package io.mosip.biosdk.services.controller;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import io.mosip.biosdk.services.config.LoggerConfig;
 import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.constants.SdkOperation;
+import io.mosip.biosdk.services.dispatch.RequestDispatcher;
+import io.mosip.biosdk.services.dedup.IdempotentResponses;
 import io.mosip.biosdk.services.dto.*;
 import io.mosip.biosdk.services.exceptions.BioSDKException;
 import io.mosip.biosdk.services.factory.BioSdkServiceFactory;
-import io.mosip.biosdk.services.spi.BioSdkServiceProvider;
-import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.biosdk.services.metrics.SdkMetrics;
+import io.mosip.biosdk.services.utils.CborCodec;
 import io.mosip.kernel.biometrics.spi.IBioApiV2;
 import io.mosip.kernel.core.logger.spi.Logger;
 import io.swagger.annotations.Api;
@@ -19,6 +21,7 @@ import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -26,11 +29,25 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.Errors;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import springfox.documentation.annotations.ApiIgnore;
 
-import java.util.ArrayList;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import static io.mosip.biosdk.services.constants.AppConstants.APPLICATION_CBOR_VALUE;
+import static io.mosip.biosdk.services.constants.AppConstants.BYTE_ENCODING_BASE64;
+import static io.mosip.biosdk.services.constants.AppConstants.BYTE_ENCODING_HEADER;
 import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
 import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
 
@@ -40,18 +57,33 @@ import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
 @CrossOrigin("*")
 public class MainController {
 
+    private static final String BATCH_OPERATION = "batch";
+
+    private static final int WRITE_BUFFER_SIZE = 8192;
+
     private Logger logger = LoggerConfig.logConfig(MainController.class);
 
     @Autowired
-    private Utils serviceUtil;
+    private IBioApiV2 iBioApi;
+
+    @Autowired
+    private RequestDispatcher dispatcher;
 
     @Autowired
-    private IBioApiV2 iBioApi;
+    private CborCodec cborCodec;
 
     @Autowired
     private BioSdkServiceFactory bioSdkServiceFactory;
 
-    private Gson gson = new GsonBuilder().serializeNulls().create();;
+    @Autowired
+    private SdkMetrics sdkMetrics;
+
+    @Autowired
+    private Gson gson;
+
+    @Autowired
+    @Qualifier("base64Gson")
+    private Gson base64Gson;
 
     @GetMapping(path = "/")
     @ApiOperation(value = "Service status")
@@ -73,136 +105,225 @@ public class MainController {
     @PostMapping(path = "/init", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiOperation(value = "Initialization")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "Initialization successful") })
-    public ResponseEntity<String> init(
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> init(
             @Validated @RequestBody(required = true) RequestDto request,
-            @ApiIgnore Errors errors) {
-        ResponseDto responseDto = generateResponseTemplate(request.getVersion());
-        try {
-            responseDto.setVersion(request.getVersion());
-            BioSdkServiceProvider bioSdkServiceProviderImpl = null;
-            bioSdkServiceProviderImpl = bioSdkServiceFactory.getBioSdkServiceProvider(request.getVersion());
-            responseDto.setResponse(bioSdkServiceProviderImpl.init(request));
-        } catch (BioSDKException e) {
-            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "BioSDKException: ", e.getMessage());
-            ErrorDto errorDto = new ErrorDto(e.getErrorCode(), e.getErrorText());
-            responseDto.getErrors().add(errorDto);
-            return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
-        }
-        return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
+            @ApiIgnore Errors errors,
+            @RequestHeader(value = BYTE_ENCODING_HEADER, required = false) String byteEncoding) {
+        return dispatcher.dispatchAsync(SdkOperation.INIT, request)
+                .thenApply(responseDto -> buildResponse(SdkOperation.INIT, responseDto, byteEncoding));
     }
 
     @PostMapping(path = "/match", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiOperation(value = "Match")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "Match successful") })
-    public ResponseEntity<String> match(
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> match(
             @Validated @RequestBody(required = true) RequestDto request,
-            @ApiIgnore Errors errors) {
-        ResponseDto responseDto = generateResponseTemplate(request.getVersion());
-        try {
-            responseDto.setVersion(request.getVersion());
-            BioSdkServiceProvider bioSdkServiceProviderImpl = null;
-            bioSdkServiceProviderImpl = bioSdkServiceFactory.getBioSdkServiceProvider(request.getVersion());
-            responseDto.setResponse(bioSdkServiceProviderImpl.match(request));
-        } catch (BioSDKException e) {
-            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "BioSDKException: ", e.getMessage());
-            ErrorDto errorDto = new ErrorDto(e.getErrorCode(), e.getErrorText());
-            responseDto.getErrors().add(errorDto);
-            return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
-        }
-        return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
+            @ApiIgnore Errors errors,
+            @RequestHeader(value = BYTE_ENCODING_HEADER, required = false) String byteEncoding,
+            @RequestHeader(value = IdempotentResponses.HEADER, required = false) String idempotencyKey) {
+        return dispatcher.dispatchAsync(SdkOperation.MATCH, request, idempotencyKey)
+                .thenApply(responseDto -> buildResponse(SdkOperation.MATCH, responseDto, byteEncoding));
+    }
+
+    @PostMapping(path = "/identify", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Identify")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Identify successful") })
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> identify(
+            @Validated @RequestBody(required = true) RequestDto request,
+            @ApiIgnore Errors errors,
+            @RequestHeader(value = BYTE_ENCODING_HEADER, required = false) String byteEncoding) {
+        return dispatcher.dispatchAsync(SdkOperation.IDENTIFY, request)
+                .thenApply(responseDto -> buildResponse(SdkOperation.IDENTIFY, responseDto, byteEncoding));
     }
 
     @PostMapping(path = "/check-quality", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiOperation(value = "Check quality")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "Check successful") })
-    public ResponseEntity<String> checkQuality(
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> checkQuality(
             @Validated @RequestBody(required = true) RequestDto request,
-            @ApiIgnore Errors errors) {
-        ResponseDto responseDto = generateResponseTemplate(request.getVersion());
-        try {
-            responseDto.setVersion(request.getVersion());
-            BioSdkServiceProvider bioSdkServiceProviderImpl = null;
-            bioSdkServiceProviderImpl = bioSdkServiceFactory.getBioSdkServiceProvider(request.getVersion());
-            responseDto.setResponse(bioSdkServiceProviderImpl.checkQuality(request));
-        } catch (BioSDKException e) {
-            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "BioSDKException: ", e.getMessage());
-            ErrorDto errorDto = new ErrorDto(e.getErrorCode(), e.getErrorText());
-            responseDto.getErrors().add(errorDto);
-            return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
-        }
-        return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
+            @ApiIgnore Errors errors,
+            @RequestHeader(value = BYTE_ENCODING_HEADER, required = false) String byteEncoding) {
+        return dispatcher.dispatchAsync(SdkOperation.CHECK_QUALITY, request)
+                .thenApply(responseDto -> buildResponse(SdkOperation.CHECK_QUALITY, responseDto, byteEncoding));
     }
 
     @PostMapping(path = "/extract-template", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiOperation(value = "Extract template")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "Extract successful") })
-    public ResponseEntity<String> extractTemplate(
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> extractTemplate(
             @Validated @RequestBody(required = true) RequestDto request,
-            @ApiIgnore Errors errors) {
-        ResponseDto responseDto = generateResponseTemplate(request.getVersion());
-        try {
-            responseDto.setVersion(request.getVersion());
-            BioSdkServiceProvider bioSdkServiceProviderImpl = null;
-            bioSdkServiceProviderImpl = bioSdkServiceFactory.getBioSdkServiceProvider(request.getVersion());
-            responseDto.setResponse(bioSdkServiceProviderImpl.extractTemplate(request));
-        } catch (BioSDKException e) {
-            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "BioSDKException: ", e.getMessage());
-            ErrorDto errorDto = new ErrorDto(e.getErrorCode(), e.getErrorText());
-            responseDto.getErrors().add(errorDto);
-            return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
-        }
-        return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
+            @ApiIgnore Errors errors,
+            @RequestHeader(value = BYTE_ENCODING_HEADER, required = false) String byteEncoding,
+            @RequestHeader(value = IdempotentResponses.HEADER, required = false) String idempotencyKey) {
+        return dispatcher.dispatchAsync(SdkOperation.EXTRACT_TEMPLATE, request, idempotencyKey)
+                .thenApply(responseDto -> buildResponse(SdkOperation.EXTRACT_TEMPLATE, responseDto, byteEncoding));
     }
 
     @PostMapping(path = "/convert-format", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiOperation(value = "Convert format")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "Convert successful") })
-    public ResponseEntity<String> convertFormat(
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> convertFormat(
             @Validated @RequestBody(required = true) RequestDto request,
-            @ApiIgnore Errors errors) {
-        ResponseDto responseDto = generateResponseTemplate(request.getVersion());
-        try {
-            responseDto.setVersion(request.getVersion());
-            BioSdkServiceProvider bioSdkServiceProviderImpl = null;
-            bioSdkServiceProviderImpl = bioSdkServiceFactory.getBioSdkServiceProvider(request.getVersion());
-            responseDto.setResponse(bioSdkServiceProviderImpl.convertFormat(request));
-        } catch (BioSDKException e) {
-            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "BioSDKException: ", e.getMessage());
-            ErrorDto errorDto = new ErrorDto(e.getErrorCode(), e.getErrorText());
-            responseDto.getErrors().add(errorDto);
-            return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
-        }
-        return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
+            @ApiIgnore Errors errors,
+            @RequestHeader(value = BYTE_ENCODING_HEADER, required = false) String byteEncoding) {
+        return dispatcher.dispatchAsync(SdkOperation.CONVERT_FORMAT, request)
+                .thenApply(responseDto -> buildResponse(SdkOperation.CONVERT_FORMAT, responseDto, byteEncoding));
     }
 
     @PostMapping(path = "/segment", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiOperation(value = "Segment")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "Segment successful") })
-    public ResponseEntity<String> segment(
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> segment(
             @Validated @RequestBody(required = true) RequestDto request,
-            @ApiIgnore Errors errors) {
-        ResponseDto responseDto = generateResponseTemplate(request.getVersion());
+            @ApiIgnore Errors errors,
+            @RequestHeader(value = BYTE_ENCODING_HEADER, required = false) String byteEncoding) {
+        return dispatcher.dispatchAsync(SdkOperation.SEGMENT, request)
+                .thenApply(responseDto -> buildResponse(SdkOperation.SEGMENT, responseDto, byteEncoding));
+    }
+
+    @PostMapping(path = "/init", consumes = APPLICATION_CBOR_VALUE, produces = APPLICATION_CBOR_VALUE)
+    @ApiOperation(value = "Initialization (CBOR)")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> initCbor(@ApiIgnore InputStream body) {
+        return processCbor(body, SdkOperation.INIT);
+    }
+
+    @PostMapping(path = "/match", consumes = APPLICATION_CBOR_VALUE, produces = APPLICATION_CBOR_VALUE)
+    @ApiOperation(value = "Match (CBOR)")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> matchCbor(@ApiIgnore InputStream body,
+            @RequestHeader(value = IdempotentResponses.HEADER, required = false) String idempotencyKey) {
+        return processCbor(body, SdkOperation.MATCH, idempotencyKey);
+    }
+
+    @PostMapping(path = "/identify", consumes = APPLICATION_CBOR_VALUE, produces = APPLICATION_CBOR_VALUE)
+    @ApiOperation(value = "Identify (CBOR)")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> identifyCbor(@ApiIgnore InputStream body) {
+        return processCbor(body, SdkOperation.IDENTIFY);
+    }
+
+    @PostMapping(path = "/check-quality", consumes = APPLICATION_CBOR_VALUE, produces = APPLICATION_CBOR_VALUE)
+    @ApiOperation(value = "Check quality (CBOR)")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> checkQualityCbor(@ApiIgnore InputStream body) {
+        return processCbor(body, SdkOperation.CHECK_QUALITY);
+    }
+
+    @PostMapping(path = "/extract-template", consumes = APPLICATION_CBOR_VALUE, produces = APPLICATION_CBOR_VALUE)
+    @ApiOperation(value = "Extract template (CBOR)")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> extractTemplateCbor(@ApiIgnore InputStream body,
+            @RequestHeader(value = IdempotentResponses.HEADER, required = false) String idempotencyKey) {
+        return processCbor(body, SdkOperation.EXTRACT_TEMPLATE, idempotencyKey);
+    }
+
+    @PostMapping(path = "/convert-format", consumes = APPLICATION_CBOR_VALUE, produces = APPLICATION_CBOR_VALUE)
+    @ApiOperation(value = "Convert format (CBOR)")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> convertFormatCbor(@ApiIgnore InputStream body) {
+        return processCbor(body, SdkOperation.CONVERT_FORMAT);
+    }
+
+    @PostMapping(path = "/segment", consumes = APPLICATION_CBOR_VALUE, produces = APPLICATION_CBOR_VALUE)
+    @ApiOperation(value = "Segment (CBOR)")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> segmentCbor(@ApiIgnore InputStream body) {
+        return processCbor(body, SdkOperation.SEGMENT);
+    }
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Batch of operations")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "Batch processed, see per item errors") })
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> batch(
+            @RequestBody(required = true) List<BatchItemDto> items,
+            @RequestHeader(value = BYTE_ENCODING_HEADER, required = false) String byteEncoding) {
+        return dispatcher.dispatchBatch(items)
+                .thenApply(responseDto -> buildResponse(BATCH_OPERATION, responseDto, byteEncoding));
+    }
+
+    /**
+     * Writes byte arrays as base64 when the client asked for it, otherwise keeps the
+     * legacy JSON number arrays so existing clients keep working. The JSON is written
+     * straight to the response stream rather than built as a String first.
+     */
+    private ResponseEntity<StreamingResponseBody> buildResponse(SdkOperation operation, ResponseDto responseDto, String byteEncoding) {
+        return buildResponse(operation.getOperationName(), responseDto, byteEncoding);
+    }
+
+    private ResponseEntity<StreamingResponseBody> buildResponse(String operation, ResponseDto responseDto, String byteEncoding) {
+        boolean base64 = BYTE_ENCODING_BASE64.equalsIgnoreCase(byteEncoding);
+        Gson writer = base64 ? base64Gson : gson;
+        StreamingResponseBody body = out -> write(operation, responseDto, out, counting -> {
+            Writer jsonWriter = new BufferedWriter(new OutputStreamWriter(counting, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+            writer.toJson(responseDto, jsonWriter);
+            jsonWriter.flush();
+        });
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(httpStatusOf(responseDto))
+                .contentType(MediaType.APPLICATION_JSON_UTF8);
+        if (base64) {
+            builder.header(BYTE_ENCODING_HEADER, BYTE_ENCODING_BASE64);
+        }
+        return builder.body(body);
+    }
+
+    /**
+     * Runs the writer as the serialize phase and records the number of bytes written.
+     */
+    private void write(String operation, ResponseDto responseDto, OutputStream out, ResponseWriter writer) throws IOException {
+        CountingOutputStream counting = new CountingOutputStream(out);
+        long start = System.nanoTime();
         try {
-            responseDto.setVersion(request.getVersion());
-            BioSdkServiceProvider bioSdkServiceProviderImpl = null;
-            bioSdkServiceProviderImpl = bioSdkServiceFactory.getBioSdkServiceProvider(request.getVersion());
-            responseDto.setResponse(bioSdkServiceProviderImpl.segment(request));
-        } catch (BioSDKException e) {
-            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "BioSDKException: ", e.getMessage());
-            ErrorDto errorDto = new ErrorDto(e.getErrorCode(), e.getErrorText());
-            responseDto.getErrors().add(errorDto);
-            return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
+            writer.write(counting);
+        } finally {
+            sdkMetrics.recordPhase(operation, SdkMetrics.PHASE_SERIALIZE, responseDto.getVersion(), null, System.nanoTime() - start);
+            sdkMetrics.recordResponseBytes(operation, counting.count);
         }
-        return ResponseEntity.status(HttpStatus.OK).body(gson.toJson(responseDto));
     }
 
-    private ResponseDto generateResponseTemplate(String version){
-        ResponseDto responseDto = new ResponseDto();
-        responseDto.setVersion(version);
-        responseDto.setResponsetime(serviceUtil.getCurrentResponseTime());
-        responseDto.setErrors(new ArrayList<ErrorDto>());
-        responseDto.setResponse("");
-        return responseDto;
+    /**
+     * Errors are reported in the body with status 200, except overload and timeouts, which
+     * are answered with 429 and 503 so that clients and load balancers can back off, and
+     * a reused idempotency key, which is answered with 422.
+     */
+    private HttpStatus httpStatusOf(ResponseDto responseDto) {
+        List<ErrorDto> errors = responseDto.getErrors();
+        if (errors != null) {
+            for (ErrorDto error : errors) {
+                if (ErrorMessages.TOO_MANY_REQUESTS.toString().equals(error.getCode())) {
+                    return HttpStatus.TOO_MANY_REQUESTS;
+                }
+                if (ErrorMessages.REQUEST_TIMEOUT.toString().equals(error.getCode())) {
+                    return HttpStatus.SERVICE_UNAVAILABLE;
+                }
+                if (ErrorMessages.IDEMPOTENCY_KEY_REUSED.toString().equals(error.getCode())) {
+                    return HttpStatus.UNPROCESSABLE_ENTITY;
+                }
+            }
+        }
+        return HttpStatus.OK;
+    }
+
+    private CompletableFuture<ResponseEntity<StreamingResponseBody>> processCbor(InputStream body, SdkOperation operation) {
+        return processCbor(body, operation, null);
+    }
+
+    private CompletableFuture<ResponseEntity<StreamingResponseBody>> processCbor(InputStream body, SdkOperation operation,
+            String idempotencyKey) {
+        CompletableFuture<ResponseDto> response;
+        try {
+            CountingInputStream counting = new CountingInputStream(body);
+            RequestDto request;
+            try {
+                request = cborCodec.readRequest(counting, version -> bioSdkServiceFactory.getRequestType(operation, version));
+            } finally {
+                sdkMetrics.recordRequestBytes(operation.getOperationName(), counting.count);
+            }
+            response = dispatcher.dispatchAsync(operation, request, idempotencyKey);
+        } catch (BioSDKException e) {
+            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "BioSDKException: ", e.getMessage());
+            response = CompletableFuture.completedFuture(dispatcher.errorResponse(null, e));
+        }
+        return response.thenApply(responseDto -> {
+            StreamingResponseBody responseBody = out -> write(operation.getOperationName(), responseDto, out,
+                    counting -> cborCodec.write(responseDto, counting));
+            return ResponseEntity.status(httpStatusOf(responseDto))
+                    .contentType(MediaType.valueOf(APPLICATION_CBOR_VALUE))
+                    .body(responseBody);
+        });
     }
 
     private String getVersion(String request) throws BioSDKException{
@@ -214,4 +335,63 @@ public class MainController {
             throw new BioSDKException(ErrorMessages.UNCHECKED_EXCEPTION.toString(), e.getMessage());
         }
     }
+
+    @FunctionalInterface
+    private interface ResponseWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /** Counts the bytes read through it, for the request size metric */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
 }
@@ -0,0 +1,149 @@
+package io.mosip.biosdk.services.dedup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.gson.Gson;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.constants.SdkOperation;
+import io.mosip.biosdk.services.dto.RequestDto;
+import io.mosip.biosdk.services.dto.ResponseDto;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+
+/**
+ * Keeps the responses of requests sent with an {@value #HEADER} header. A request
+ * repeating the key of an earlier request of the same operation and version gets that
+ * request's response, also while it is still being processed, provided the body is the
+ * same; a key sent again with a different body is rejected. Responses with errors are
+ * not kept, so that a retry after a failure is processed again.
+ */
+@Component
+public class IdempotentResponses {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final String SOURCE = "idempotency-key";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${mosip.biosdk.dedup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${mosip.biosdk.dedup.replay-ttl-seconds:30}")
+    private long replayTtlSeconds;
+
+    @Value("${mosip.biosdk.dedup.replay-max-entries:1000}")
+    private long replayMaxEntries;
+
+    @Autowired
+    private Gson gson;
+
+    private Cache<String, Entry> responses;
+
+    @PostConstruct
+    public void createCache() {
+        if (!enabled) {
+            return;
+        }
+        responses = Caffeine.newBuilder()
+                .maximumSize(replayMaxEntries)
+                .expireAfterWrite(Duration.ofSeconds(replayTtlSeconds))
+                .build();
+    }
+
+    /**
+     * @return the response of an earlier request with the same key, otherwise the
+     *         response of the dispatched request
+     * @throws BioSDKException IDEMPOTENCY_KEY_REUSED if the earlier request with the key
+     *                         had a different body
+     */
+    public CompletableFuture<ResponseDto> replay(SdkOperation operation, RequestDto request, String idempotencyKey,
+            Supplier<CompletableFuture<ResponseDto>> dispatch) {
+        if (responses == null || idempotencyKey == null || idempotencyKey.isEmpty()) {
+            return dispatch.get();
+        }
+        String key = operation.getOperationName() + '|' + request.getVersion() + '|' + idempotencyKey;
+        byte[] bodyDigest = bodyDigest(request);
+        boolean[] dispatched = new boolean[1];
+        Entry entry = responses.get(key, k -> {
+            dispatched[0] = true;
+            return new Entry(bodyDigest, dispatch.get());
+        });
+        if (!dispatched[0]) {
+            if (!MessageDigest.isEqual(entry.bodyDigest, bodyDigest)) {
+                throw new BioSDKException(ErrorMessages.IDEMPOTENCY_KEY_REUSED.toString(),
+                        ErrorMessages.IDEMPOTENCY_KEY_REUSED.getMessage() + ": " + idempotencyKey);
+            }
+            Counter.builder("biosdk.dedup.saved")
+                    .tag("operation", operation.getOperationName())
+                    .tag("source", SOURCE)
+                    .register(meterRegistry)
+                    .increment();
+            return entry.response;
+        }
+        entry.response.whenComplete((responseDto, t) -> {
+            if (t != null || responseDto.getErrors() != null && !responseDto.getErrors().isEmpty()) {
+                responses.asMap().remove(key, entry);
+            }
+        });
+        return entry.response;
+    }
+
+    /**
+     * The SHA-256 of the encoded request, or, for requests decoded by a binary transport,
+     * of the JSON form of the decoded payload.
+     */
+    private byte[] bodyDigest(RequestDto request) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        if (request.getRequest() != null) {
+            digest.update(request.getRequest().getBytes(StandardCharsets.UTF_8));
+        } else if (request.getPayload() != null) {
+            Writer writer = new OutputStreamWriter(new DigestOutputStream(OutputStream.nullOutputStream(), digest),
+                    StandardCharsets.UTF_8);
+            try {
+                gson.toJson(request.getPayload(), writer);
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return digest.digest();
+    }
+
+    private static final class Entry {
+        private final byte[] bodyDigest;
+        private final CompletableFuture<ResponseDto> response;
+
+        private Entry(byte[] bodyDigest, CompletableFuture<ResponseDto> response) {
+            this.bodyDigest = bodyDigest;
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package io.mosip.biosdk.services.dedup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.biosdk.services.cache.BiometricDigests;
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.biosdk.services.constants.SdkOperation;
+import io.mosip.biosdk.services.gallery.GalleryRegistry;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ExtractTemplateRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
+import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+
+/**
+ * Runs identical SDK calls once. Requests are identified by a SHA-256 digest of their
+ * decoded content; a request arriving while an identical one is in flight waits for that call
+ * and shares its result. Successful results are also kept for a short time, so that a
+ * retry arriving just after the call completed is answered without calling the SDK.
+ */
+@Component
+public class RequestCoalescer {
+
+    public static final String SOURCE_IN_FLIGHT = "in-flight";
+    public static final String SOURCE_REPLAY = "replay";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private GalleryRegistry galleryRegistry;
+
+    @Value("${mosip.biosdk.dedup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${mosip.biosdk.dedup.replay-ttl-seconds:30}")
+    private long replayTtlSeconds;
+
+    @Value("${mosip.biosdk.dedup.replay-max-entries:1000}")
+    private long replayMaxEntries;
+
+    private final ConcurrentMap<ByteBuffer, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private Cache<ByteBuffer, Object> completed;
+
+    @PostConstruct
+    public void createCache() {
+        if (!enabled) {
+            return;
+        }
+        completed = Caffeine.newBuilder()
+                .maximumSize(replayMaxEntries)
+                .expireAfterWrite(Duration.ofSeconds(replayTtlSeconds))
+                .build();
+        Gauge.builder("biosdk.dedup.in.flight", inFlight, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Inline gallery records are identified by their content, registered ones by their
+     * gallery id and the generation of the registry, so that the key can be computed
+     * before the registered records are resolved.
+     *
+     * @return the key of the match request, or null when coalescing is disabled or a
+     *         record of the request has no content to identify it by
+     */
+    public ByteBuffer matchKey(String version, MatchRequestDto request) {
+        if (!enabled) {
+            return null;
+        }
+        MessageDigest digest = newDigest(SdkOperation.MATCH, version);
+        if (!updateRecord(digest, request.getSample())) {
+            return null;
+        }
+        BiometricRecord[] gallery = request.getGallery();
+        if (gallery != null) {
+            for (BiometricRecord record : gallery) {
+                update(digest, "#");
+                if (!updateRecord(digest, record)) {
+                    return null;
+                }
+            }
+        }
+        String[] galleryIds = request.getGalleryIds();
+        if (galleryIds != null && galleryIds.length > 0) {
+            update(digest, "@" + galleryRegistry.generation());
+            for (String galleryId : galleryIds) {
+                update(digest, "@" + galleryId.length() + ':' + galleryId);
+            }
+        }
+        return finish(digest, request.getModalitiesToMatch(), request.getFlags());
+    }
+
+    /**
+     * @return the key of the extraction request, or null when coalescing is disabled or
+     *         the sample has no content to identify it by
+     */
+    public ByteBuffer extractTemplateKey(String version, ExtractTemplateRequestDto request) {
+        if (!enabled) {
+            return null;
+        }
+        MessageDigest digest = newDigest(SdkOperation.EXTRACT_TEMPLATE, version);
+        if (!updateRecord(digest, request.getSample())) {
+            return null;
+        }
+        return finish(digest, request.getModalitiesToExtract(), request.getFlags());
+    }
+
+    /**
+     * Runs the SDK call unless an identical call is in flight or has just completed, in
+     * which case its result, or its exception, is returned instead. A null key runs the call.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R coalesce(SdkOperation operation, ByteBuffer key, Supplier<R> sdkCall) {
+        if (key == null || completed == null) {
+            return sdkCall.get();
+        }
+        Object replayed = completed.getIfPresent(key);
+        if (replayed != null) {
+            countSaved(operation, SOURCE_REPLAY);
+            return (R) replayed;
+        }
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            countSaved(operation, SOURCE_IN_FLIGHT);
+            return (R) Utils.join(running);
+        }
+        try {
+            R result = sdkCall.get();
+            if (isSuccess(result)) {
+                completed.put(key, result);
+            }
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private void countSaved(SdkOperation operation, String source) {
+        Counter.builder("biosdk.dedup.saved")
+                .tag("operation", operation.getOperationName())
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static boolean isSuccess(Object result) {
+        if (!(result instanceof Response)) {
+            return false;
+        }
+        Integer statusCode = ((Response<?>) result).getStatusCode();
+        return statusCode != null && statusCode == ResponseStatus.SUCCESS.getStatusCode();
+    }
+
+    private static MessageDigest newDigest(SdkOperation operation, String version) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, operation.getOperationName() + '|' + version + '|');
+        return digest;
+    }
+
+    /**
+     * @return false if the record has no content to identify it by
+     */
+    private static boolean updateRecord(MessageDigest digest, BiometricRecord record) {
+        if (record == null || record.getSegments() == null || record.getSegments().isEmpty()) {
+            return false;
+        }
+        for (BIR segment : record.getSegments()) {
+            String segmentKey = BiometricDigests.segmentKey(segment);
+            if (segmentKey == null) {
+                return false;
+            }
+            update(digest, segmentKey);
+            update(digest, ";");
+        }
+        return true;
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** The digest wrapped as a key, the 32 bytes of SHA-256 rather than the concatenated segment keys */
+    private static ByteBuffer finish(MessageDigest digest, List<BiometricType> modalities, Map<String, String> flags) {
+        update(digest, "|");
+        update(digest, BiometricDigests.optionsKey(modalities, flags));
+        return ByteBuffer.wrap(digest.digest());
+    }
+}
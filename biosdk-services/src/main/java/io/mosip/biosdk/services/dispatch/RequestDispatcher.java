@@ -0,0 +1,239 @@
+package io.mosip.biosdk.services.dispatch;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.constants.SdkOperation;
+import io.mosip.biosdk.services.dedup.IdempotentResponses;
+import io.mosip.biosdk.services.dto.BatchItemDto;
+import io.mosip.biosdk.services.dto.ErrorDto;
+import io.mosip.biosdk.services.dto.RequestDto;
+import io.mosip.biosdk.services.dto.ResponseDto;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.biosdk.services.factory.BioSdkServiceFactory;
+import io.mosip.biosdk.services.metrics.SdkMetrics;
+import io.mosip.biosdk.services.sdk.OperationBulkheads;
+import io.mosip.biosdk.services.spi.BioSdkServiceProvider;
+import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.core.logger.spi.Logger;
+
+/**
+ * Resolves the provider for a request version, runs the operation and wraps the
+ * outcome in a {@link ResponseDto}, for single requests and batches alike.
+ */
+@Component
+public class RequestDispatcher {
+
+    private Logger logger = LoggerConfig.logConfig(RequestDispatcher.class);
+
+    @Autowired
+    private Utils serviceUtil;
+
+    @Autowired
+    private BioSdkServiceFactory bioSdkServiceFactory;
+
+    @Autowired
+    @Qualifier("batchExecutor")
+    private ExecutorService batchExecutor;
+
+    @Autowired
+    @Qualifier("sdkComputeExecutor")
+    private ExecutorService sdkComputeExecutor;
+
+    @Autowired
+    private OperationBulkheads bulkheads;
+
+    @Autowired
+    private SdkMetrics sdkMetrics;
+
+    @Autowired
+    private IdempotentResponses idempotentResponses;
+
+    @Autowired
+    private Environment env;
+
+    @Value("${mosip.biosdk.batch.max-items:500}")
+    private int maxBatchItems;
+
+    /** Timeout of operations without their own mosip.biosdk.async.timeout.<operation>-ms */
+    @Value("${mosip.biosdk.async.default-timeout-ms:60000}")
+    private long defaultTimeoutMillis;
+
+    private final Map<SdkOperation, Long> timeouts = new EnumMap<>(SdkOperation.class);
+
+    @PostConstruct
+    public void loadTimeouts() {
+        for (SdkOperation operation : SdkOperation.values()) {
+            timeouts.put(operation, env.getProperty("mosip.biosdk.async.timeout." + operation.getOperationName() + "-ms",
+                    Long.class, defaultTimeoutMillis));
+        }
+    }
+
+    public ResponseDto dispatch(SdkOperation operation, RequestDto request) {
+        ResponseDto responseDto = generateResponseTemplate(request.getVersion());
+        try {
+            BioSdkServiceProvider bioSdkServiceProviderImpl = bioSdkServiceFactory.getBioSdkServiceProvider(request.getVersion());
+            responseDto.setResponse(operation.invoke(bioSdkServiceProviderImpl, request));
+        } catch (BioSDKException e) {
+            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "BioSDKException: ", e.getMessage());
+            responseDto.getErrors().add(new ErrorDto(e.getErrorCode(), e.getErrorText()));
+        }
+        return responseDto;
+    }
+
+    /**
+     * Runs the operation off the calling thread: in the bulkhead of the operation when
+     * bulkheads are enabled, otherwise on the SDK compute executor. Overload and timeouts
+     * complete the future with an error response rather than exceptionally; a request
+     * that times out while still queued is not run at all.
+     */
+    public CompletableFuture<ResponseDto> dispatchAsync(SdkOperation operation, RequestDto request) {
+        if (request.getRequest() != null) {
+            sdkMetrics.recordRequestBytes(operation.getOperationName(), request.getRequest().length());
+        }
+        return submit(operation, request).thenApply(responseDto -> countErrors(operation.getOperationName(), responseDto));
+    }
+
+    /**
+     * Like {@link #dispatchAsync(SdkOperation, RequestDto)}, answering a request that
+     * repeats the idempotency key of an earlier one with the earlier response.
+     */
+    public CompletableFuture<ResponseDto> dispatchAsync(SdkOperation operation, RequestDto request, String idempotencyKey) {
+        try {
+            return idempotentResponses.replay(operation, request, idempotencyKey, () -> dispatchAsync(operation, request));
+        } catch (BioSDKException e) {
+            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "BioSDKException: ", e.getMessage());
+            return CompletableFuture.completedFuture(errorResponse(request.getVersion(), e));
+        }
+    }
+
+    private CompletableFuture<ResponseDto> submit(SdkOperation operation, RequestDto request) {
+        CompletableFuture<ResponseDto> future;
+        try {
+            future = bulkheads.isEnabled()
+                    ? bulkheads.submit(operation, () -> dispatch(operation, request))
+                    : OperationBulkheads.supplyAsync(() -> dispatch(operation, request), sdkComputeExecutor);
+        } catch (BioSDKException e) {
+            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "BioSDKException: ", e.getMessage());
+            return CompletableFuture.completedFuture(errorResponse(request.getVersion(), e));
+        } catch (RejectedExecutionException e) {
+            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, operation.getOperationName() + ": ", "compute executor saturated");
+            return CompletableFuture.completedFuture(errorResponse(request.getVersion(), new BioSDKException(
+                    ErrorMessages.TOO_MANY_REQUESTS.toString(),
+                    ErrorMessages.TOO_MANY_REQUESTS.getMessage() + ": " + operation.getOperationName())));
+        }
+        long timeoutMillis = timeouts.get(operation);
+        return future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).exceptionally(t -> {
+            Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+            if (cause instanceof TimeoutException) {
+                logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, operation.getOperationName() + ": ", "timed out after " + timeoutMillis + " ms");
+                return errorResponse(request.getVersion(), new BioSDKException(ErrorMessages.REQUEST_TIMEOUT.toString(),
+                        ErrorMessages.REQUEST_TIMEOUT.getMessage() + ": " + timeoutMillis + " ms"));
+            }
+            throw t instanceof CompletionException ? (CompletionException) t : new CompletionException(t);
+        });
+    }
+
+    /**
+     * Runs the items concurrently on the batch executor. Every item gets its own
+     * response in request order; a failing item does not affect the others, and items
+     * that do not fit the executor's queue are answered with TOO_MANY_REQUESTS.
+     */
+    public CompletableFuture<ResponseDto> dispatchBatch(List<BatchItemDto> items) {
+        ResponseDto batchResponse = generateResponseTemplate(null);
+        if (items == null || items.size() > maxBatchItems) {
+            ErrorMessages error = items == null ? ErrorMessages.INVALID_REQUEST_BODY : ErrorMessages.BATCH_SIZE_EXCEEDED;
+            batchResponse.getErrors().add(new ErrorDto(error.toString(), error.getMessage()));
+            return CompletableFuture.completedFuture(batchResponse);
+        }
+        List<CompletableFuture<ResponseDto>> futures = new ArrayList<>(items.size());
+        for (BatchItemDto item : items) {
+            try {
+                futures.add(CompletableFuture.supplyAsync(() -> dispatchItem(item), batchExecutor));
+            } catch (RejectedExecutionException e) {
+                logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "batch: ", "batch executor saturated");
+                futures.add(CompletableFuture.completedFuture(errorResponse(item == null ? null : item.getVersion(),
+                        new BioSDKException(ErrorMessages.TOO_MANY_REQUESTS.toString(),
+                                ErrorMessages.TOO_MANY_REQUESTS.getMessage() + ": batch"))));
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(done -> {
+            List<ResponseDto> responses = new ArrayList<>(items.size());
+            for (CompletableFuture<ResponseDto> future : futures) {
+                responses.add(future.join());
+            }
+            batchResponse.setResponse(responses);
+            return batchResponse;
+        });
+    }
+
+    private ResponseDto dispatchItem(BatchItemDto item) {
+        SdkOperation operation = item == null ? null : SdkOperation.fromName(item.getOperation());
+        if (operation == null || !operation.isBatchable()) {
+            return errorResponse(item == null ? null : item.getVersion(), new BioSDKException(
+                    ErrorMessages.INVALID_BATCH_OPERATION.toString(),
+                    ErrorMessages.INVALID_BATCH_OPERATION.getMessage() + ": " + (item == null ? null : item.getOperation())));
+        }
+        RequestDto request = new RequestDto();
+        request.setVersion(item.getVersion());
+        request.setRequest(item.getRequest());
+        try {
+            return countErrors(operation.getOperationName(), dispatch(operation, request));
+        } catch (RuntimeException e) {
+            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "batch " + operation.getOperationName() + ": ", e.toString());
+            return errorResponse(item.getVersion(), new BioSDKException(
+                    ErrorMessages.UNCHECKED_EXCEPTION.toString(), e.toString()));
+        }
+    }
+
+    private ResponseDto countErrors(String operation, ResponseDto responseDto) {
+        if (responseDto.getErrors() != null) {
+            for (ErrorDto error : responseDto.getErrors()) {
+                sdkMetrics.countError(operation, error.getCode());
+            }
+        }
+        return responseDto;
+    }
+
+    public ResponseDto successResponse(String version, Object response) {
+        ResponseDto responseDto = generateResponseTemplate(version);
+        responseDto.setResponse(response);
+        return responseDto;
+    }
+
+    public ResponseDto errorResponse(String version, BioSDKException e) {
+        ResponseDto responseDto = generateResponseTemplate(version);
+        responseDto.getErrors().add(new ErrorDto(e.getErrorCode(), e.getErrorText()));
+        return responseDto;
+    }
+
+    private ResponseDto generateResponseTemplate(String version){
+        ResponseDto responseDto = new ResponseDto();
+        responseDto.setVersion(version);
+        responseDto.setResponsetime(serviceUtil.getCurrentResponseTime());
+        responseDto.setErrors(new ArrayList<ErrorDto>());
+        responseDto.setResponse("");
+        return responseDto;
+    }
+}
@@ -0,0 +1,17 @@
+package io.mosip.biosdk.services.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class BatchItemDto {
+    /** One of match, checkQuality, extractTemplate, segment or convertFormat */
+    private String operation;
+    private String version;
+    private String request;
+}
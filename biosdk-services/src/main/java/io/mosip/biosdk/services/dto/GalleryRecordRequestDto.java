@@ -0,0 +1,16 @@
+package io.mosip.biosdk.services.dto;
+
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class GalleryRecordRequestDto {
+    private String galleryId;
+    private BiometricRecord record;
+}
@@ -1,5 +1,7 @@
 package io.mosip.biosdk.services.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -12,4 +14,12 @@ import lombok.ToString;
 public class RequestDto {
     private String version;
     private String request;
+
+    /**
+     * Inner request already decoded by the transport, e.g. from a CBOR envelope.
+     * When present it is used instead of the base64 encoded {@link #request}.
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    private transient Object payload;
 }
@@ -1,12 +1,16 @@
 package io.mosip.biosdk.services.factory;
 
+import io.mosip.biosdk.services.constants.SdkOperation;
 import io.mosip.biosdk.services.exceptions.BioSDKException;
 import io.mosip.biosdk.services.spi.BioSdkServiceProvider;
 import io.mosip.biosdk.services.utils.ErrorCode;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Component
 public class BioSdkServiceFactory {
@@ -22,4 +26,28 @@ public class BioSdkServiceFactory {
         }
         throw new BioSDKException(ErrorCode.NO_PROVIDERS.getErrorCode(), ErrorCode.NO_PROVIDERS.getErrorMessage());
     }
+
+    /**
+     * @return the spec versions served
+     */
+    public Set<String> getSpecVersions(){
+        Set<String> versions = new HashSet<>();
+        for(BioSdkServiceProvider provider : bioSdkServiceProviders) {
+            versions.add(String.valueOf(provider.getSpecVersion()));
+        }
+        return Collections.unmodifiableSet(versions);
+    }
+
+    /**
+     * @return the inner request type of the operation for the version, null if no provider
+     *         has the version or the provider does not name one
+     */
+    public Class<?> getRequestType(SdkOperation operation, String version){
+        for(BioSdkServiceProvider provider : bioSdkServiceProviders) {
+            if(provider.getSpecVersion().equals(version)){
+                return provider.getRequestType(operation);
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,160 @@
+package io.mosip.biosdk.services.gallery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+/**
+ * In memory index of the registered gallery records for 1:N identification. Records are
+ * split by modality, each record contributing only its segments of that modality, and
+ * spread over a fixed number of partitions per modality, so that a probe can be matched
+ * against all partitions of a modality concurrently.
+ */
+@Component
+@ConditionalOnProperty(name = "mosip.biosdk.identify.enabled", havingValue = "true")
+public class GalleryIndex implements GalleryListener {
+
+    /** Partitions per modality, 0 for one per available processor */
+    @Value("${mosip.biosdk.identify.partitions:0}")
+    private int partitionCount;
+
+    private final Map<BiometricType, Partition[]> partitions = new EnumMap<>(BiometricType.class);
+
+    @PostConstruct
+    public void createPartitions() {
+        if (partitionCount <= 0) {
+            partitionCount = Runtime.getRuntime().availableProcessors();
+        }
+        for (BiometricType modality : BiometricType.values()) {
+            Partition[] modalityPartitions = new Partition[partitionCount];
+            for (int i = 0; i < partitionCount; i++) {
+                modalityPartitions[i] = new Partition();
+            }
+            partitions.put(modality, modalityPartitions);
+        }
+    }
+
+    @Override
+    public void recordChanged(String galleryId, BiometricRecord record) {
+        Map<BiometricType, List<BIR>> segments = record == null
+                ? Collections.emptyMap() : segmentsByModality(record);
+        int partition = Math.floorMod(galleryId.hashCode(), partitionCount);
+        for (Map.Entry<BiometricType, Partition[]> entry : partitions.entrySet()) {
+            List<BIR> modalitySegments = segments.get(entry.getKey());
+            if (modalitySegments == null) {
+                entry.getValue()[partition].remove(galleryId);
+            } else {
+                entry.getValue()[partition].put(galleryId, subRecord(record, modalitySegments));
+            }
+        }
+    }
+
+    /**
+     * @return the partitions holding records of the modality
+     */
+    public Partition[] partitions(BiometricType modality) {
+        return partitions.get(modality);
+    }
+
+    /**
+     * @return the modalities with at least one indexed record
+     */
+    public Set<BiometricType> modalities() {
+        Set<BiometricType> modalities = Collections.newSetFromMap(new EnumMap<>(BiometricType.class));
+        for (Map.Entry<BiometricType, Partition[]> entry : partitions.entrySet()) {
+            for (Partition partition : entry.getValue()) {
+                if (partition.size() > 0) {
+                    modalities.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return modalities;
+    }
+
+    private static Map<BiometricType, List<BIR>> segmentsByModality(BiometricRecord record) {
+        Map<BiometricType, List<BIR>> segments = new EnumMap<>(BiometricType.class);
+        if (record.getSegments() == null) {
+            return segments;
+        }
+        for (BIR segment : record.getSegments()) {
+            if (segment.getBdbInfo() == null || segment.getBdbInfo().getType() == null) {
+                continue;
+            }
+            for (BiometricType modality : segment.getBdbInfo().getType()) {
+                segments.computeIfAbsent(modality, m -> new ArrayList<>()).add(segment);
+            }
+        }
+        return segments;
+    }
+
+    private static BiometricRecord subRecord(BiometricRecord record, List<BIR> segments) {
+        BiometricRecord subRecord = new BiometricRecord();
+        subRecord.setVersion(record.getVersion());
+        subRecord.setCbeffversion(record.getCbeffversion());
+        subRecord.setBirInfo(record.getBirInfo());
+        subRecord.setOthers(record.getOthers());
+        subRecord.setSegments(segments);
+        return subRecord;
+    }
+
+    /**
+     * Records of one modality in one partition. Searches work on a snapshot, so that
+     * registrations do not wait for running identifications.
+     */
+    public static final class Partition {
+        private final Map<String, BiometricRecord> records = new LinkedHashMap<>();
+
+        private synchronized void put(String galleryId, BiometricRecord record) {
+            records.put(galleryId, record);
+        }
+
+        private synchronized void remove(String galleryId) {
+            records.remove(galleryId);
+        }
+
+        public synchronized int size() {
+            return records.size();
+        }
+
+        public synchronized Snapshot snapshot() {
+            return new Snapshot(records.keySet().toArray(new String[0]),
+                    records.values().toArray(new BiometricRecord[0]));
+        }
+    }
+
+    /**
+     * Gallery ids and their records at the same positions.
+     */
+    public static final class Snapshot {
+        private final String[] galleryIds;
+        private final BiometricRecord[] records;
+
+        private Snapshot(String[] galleryIds, BiometricRecord[] records) {
+            this.galleryIds = galleryIds;
+            this.records = records;
+        }
+
+        public String[] getGalleryIds() {
+            return galleryIds;
+        }
+
+        public BiometricRecord[] getRecords() {
+            return records;
+        }
+    }
+}
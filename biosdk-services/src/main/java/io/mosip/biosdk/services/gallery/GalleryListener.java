@@ -0,0 +1,14 @@
+package io.mosip.biosdk.services.gallery;
+
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+/**
+ * Notified by the {@link GalleryRegistry} after a record was stored or removed.
+ */
+public interface GalleryListener {
+
+    /**
+     * @param record the record now registered under the id, null if it was deleted
+     */
+    void recordChanged(String galleryId, BiometricRecord record);
+}
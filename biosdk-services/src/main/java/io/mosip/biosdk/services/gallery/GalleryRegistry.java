@@ -0,0 +1,289 @@
+package io.mosip.biosdk.services.gallery;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.dto.GalleryRecordRequestDto;
+import io.mosip.biosdk.services.dto.RequestDto;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.core.logger.spi.Logger;
+
+/**
+ * Server side registry of gallery records, so that repeat matches can refer to enrolled
+ * records by id instead of sending them with every request. Records are kept in a
+ * {@link GalleryStore} and survive restarts.
+ */
+@Component
+public class GalleryRegistry {
+
+    private Logger logger = LoggerConfig.logConfig(GalleryRegistry.class);
+
+    @Value("${mosip.biosdk.gallery.enabled:false}")
+    private boolean enabled;
+
+    @Value("${mosip.biosdk.gallery.storage-dir:gallery}")
+    private String storageDir;
+
+    @Value("${mosip.biosdk.gallery.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    /** Bound of the decoded records kept for matching, by their stored size; 0 to decode on every use */
+    @Value("${mosip.biosdk.gallery.cache.max-bytes:268435456}")
+    private long cacheMaxBytes;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Records are stored with base64 byte arrays, the most compact form Gson reads back */
+    @Autowired
+    @Qualifier("base64Gson")
+    private Gson gson;
+
+    /** Told about every stored record on startup and about each change afterwards */
+    @Autowired(required = false)
+    private List<GalleryListener> listeners = Collections.emptyList();
+
+    private GalleryStore store;
+
+    private Cache<String, Decoded> decoded;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        // a segment is one mapped buffer, which cannot exceed 2 GB
+        store = new GalleryStore(Paths.get(storageDir), (int) Math.min(Integer.MAX_VALUE, segmentSizeMb * 1024L * 1024));
+        if (cacheMaxBytes > 0) {
+            decoded = Caffeine.newBuilder()
+                    .maximumWeight(cacheMaxBytes)
+                    .weigher((String galleryId, Decoded entry) -> entry.weight)
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, decoded, "biosdk.gallery");
+        }
+        logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "gallery: ", "opened " + store.size() + " records from " + storageDir);
+        if (!listeners.isEmpty()) {
+            for (String galleryId : store.ids()) {
+                notifyListeners(galleryId, get(galleryId));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    public GalleryRecordRequestDto decode(RequestDto request) {
+        try (JsonReader jsonReader = new JsonReader(Utils.base64DecodeReader(request.getRequest()))) {
+            GalleryRecordRequestDto recordRequest = gson.fromJson(jsonReader, GalleryRecordRequestDto.class);
+            Utils.requireEndOfDocument(jsonReader);
+            if (recordRequest == null || recordRequest.getGalleryId() == null || recordRequest.getRecord() == null) {
+                throw new IllegalArgumentException("galleryId and record are required");
+            }
+            return recordRequest;
+        } catch (IOException | RuntimeException e) {
+            throw new BioSDKException(ErrorMessages.INVALID_REQUEST_BODY.toString(),
+                    ErrorMessages.INVALID_REQUEST_BODY.getMessage() + ": " + e.toString());
+        }
+    }
+
+    public synchronized void register(String galleryId, BiometricRecord record) {
+        if (requireStore().contains(galleryId)) {
+            throw error(ErrorMessages.GALLERY_RECORD_EXISTS, galleryId);
+        }
+        write(galleryId, record);
+    }
+
+    public synchronized void update(String galleryId, BiometricRecord record) {
+        if (!requireStore().contains(galleryId)) {
+            throw error(ErrorMessages.GALLERY_RECORD_NOT_FOUND, galleryId);
+        }
+        write(galleryId, record);
+    }
+
+    public synchronized void delete(String galleryId) {
+        try {
+            if (!requireStore().delete(galleryId)) {
+                throw error(ErrorMessages.GALLERY_RECORD_NOT_FOUND, galleryId);
+            }
+        } catch (IOException e) {
+            throw error(ErrorMessages.GALLERY_STORAGE_ERROR, e.toString());
+        }
+        invalidate(galleryId);
+        notifyListeners(galleryId, null);
+    }
+
+    /**
+     * @return a number that changes whenever a record is registered, updated or deleted
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public Set<String> ids() {
+        return requireStore().ids();
+    }
+
+    /**
+     * Decoded records are kept up to the configured bound, so repeat matches against the
+     * same records do not parse them again. As the records of the identify index, they
+     * are shared between requests and must not be modified.
+     *
+     * @return the record registered under the id, or null if there is none
+     */
+    public BiometricRecord get(String galleryId) {
+        GalleryStore galleryStore = requireStore();
+        if (decoded == null) {
+            Decoded entry = read(galleryStore, galleryId);
+            return entry == null ? null : entry.record;
+        }
+        Decoded entry = decoded.get(galleryId, id -> read(galleryStore, id));
+        return entry == null ? null : entry.record;
+    }
+
+    /**
+     * @return the records registered under the ids, in the order of the ids
+     */
+    public BiometricRecord[] resolve(String[] galleryIds) {
+        BiometricRecord[] records = new BiometricRecord[galleryIds.length];
+        for (int i = 0; i < galleryIds.length; i++) {
+            records[i] = get(galleryIds[i]);
+            if (records[i] == null) {
+                throw error(ErrorMessages.GALLERY_RECORD_NOT_FOUND, galleryIds[i]);
+            }
+        }
+        return records;
+    }
+
+    private Decoded read(GalleryStore galleryStore, String galleryId) {
+        ByteBuffer data = galleryStore.get(galleryId);
+        if (data == null) {
+            return null;
+        }
+        int size = data.remaining();
+        try (JsonReader jsonReader = new JsonReader(
+                new InputStreamReader(new ByteBufferInputStream(data), StandardCharsets.UTF_8))) {
+            return new Decoded(gson.fromJson(jsonReader, BiometricRecord.class), size);
+        } catch (IOException | RuntimeException e) {
+            throw error(ErrorMessages.GALLERY_STORAGE_ERROR, galleryId + ": " + e.toString());
+        }
+    }
+
+    private void write(String galleryId, BiometricRecord record) {
+        try {
+            store.put(galleryId, gson.toJson(record).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw error(ErrorMessages.GALLERY_STORAGE_ERROR, e.toString());
+        }
+        invalidate(galleryId);
+        notifyListeners(galleryId, record);
+    }
+
+    /** Called after the store changed, waits for a decoding of the old record in progress */
+    private void invalidate(String galleryId) {
+        generation.incrementAndGet();
+        if (decoded != null) {
+            decoded.invalidate(galleryId);
+        }
+    }
+
+    private void notifyListeners(String galleryId, BiometricRecord record) {
+        for (GalleryListener listener : listeners) {
+            listener.recordChanged(galleryId, record);
+        }
+    }
+
+    private GalleryStore requireStore() {
+        if (store == null) {
+            throw error(ErrorMessages.GALLERY_DISABLED, "set mosip.biosdk.gallery.enabled=true");
+        }
+        return store;
+    }
+
+    private static BioSDKException error(ErrorMessages errorMessage, String detail) {
+        return new BioSDKException(errorMessage.toString(), errorMessage.getMessage() + ": " + detail);
+    }
+
+    private static final class Decoded {
+        private final BiometricRecord record;
+        /** Stored size of the record; the decoded record takes about as much, BDBs being raw */
+        private final int weight;
+
+        private Decoded(BiometricRecord record, int weight) {
+            this.record = record;
+            this.weight = weight;
+        }
+    }
+
+    /** Reads a buffer without copying it to the heap first */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package io.mosip.biosdk.services.gallery;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only store of gallery records in memory-mapped segment files. Record bytes
+ * stay off heap in the mapping and are handed out as read-only buffer views.
+ *
+ * Every put or delete appends an entry; the latest entry of an id wins. Entries are laid
+ * out as [magic][id length][id][data length or -1 for a delete][data], and the magic is
+ * written last so that an entry torn by a crash is ignored when the files are reopened.
+ * Space of replaced and deleted entries is not reclaimed.
+ */
+public class GalleryStore implements Closeable {
+
+    private static final int ENTRY_MAGIC = 0x42494F47;
+    private static final int TOMBSTONE = -1;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".gallery";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>();
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+
+    /** Write offset in the last segment, guarded by this */
+    private int writePosition;
+
+    public GalleryStore(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> paths = Files.list(directory)) {
+            files = paths.filter(GalleryStore::isSegmentFile).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            MappedByteBuffer segment = map(file, Files.size(file));
+            segments.add(segment);
+            writePosition = scan(segments.size() - 1, segment);
+        }
+    }
+
+    public boolean contains(String id) {
+        return index.containsKey(id);
+    }
+
+    public Set<String> ids() {
+        return new HashSet<>(index.keySet());
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * @return a read-only view of the record bytes, or null if the id is not stored
+     */
+    public ByteBuffer get(String id) {
+        Location location = index.get(id);
+        if (location == null) {
+            return null;
+        }
+        ByteBuffer view = segments.get(location.segment).duplicate();
+        view.limit(location.offset + location.length);
+        view.position(location.offset);
+        return view.slice().asReadOnlyBuffer();
+    }
+
+    public synchronized void put(String id, byte[] data) throws IOException {
+        int offset = append(id, data);
+        index.put(id, new Location(segments.size() - 1, offset, data.length));
+    }
+
+    /**
+     * @return false if the id was not stored
+     */
+    public synchronized boolean delete(String id) throws IOException {
+        if (!index.containsKey(id)) {
+            return false;
+        }
+        append(id, null);
+        index.remove(id);
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.forEach(MappedByteBuffer::force);
+        segments.clear();
+        index.clear();
+    }
+
+    /**
+     * @return offset of the data within the last segment
+     */
+    private int append(String id, byte[] data) throws IOException {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        int length = 12 + idBytes.length + (data == null ? 0 : data.length);
+        MappedByteBuffer segment = segmentWithRoomFor(length);
+        ByteBuffer buffer = segment.duplicate();
+        int start = writePosition;
+        buffer.position(start + 4);
+        buffer.putInt(idBytes.length);
+        buffer.put(idBytes);
+        buffer.putInt(data == null ? TOMBSTONE : data.length);
+        int dataOffset = buffer.position();
+        if (data != null) {
+            buffer.put(data);
+        }
+        buffer.putInt(start, ENTRY_MAGIC);
+        segment.force();
+        writePosition = start + length;
+        return dataOffset;
+    }
+
+    private MappedByteBuffer segmentWithRoomFor(int length) throws IOException {
+        if (!segments.isEmpty()) {
+            MappedByteBuffer last = segments.get(segments.size() - 1);
+            if (writePosition + length <= last.capacity()) {
+                return last;
+            }
+        }
+        Path file = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segments.size(), SEGMENT_SUFFIX));
+        MappedByteBuffer segment = map(file, Math.max(segmentSize, length));
+        segments.add(segment);
+        writePosition = 0;
+        return segment;
+    }
+
+    private int scan(int segmentIndex, MappedByteBuffer segment) {
+        int position = 0;
+        int capacity = segment.capacity();
+        while (position + 12 <= capacity && segment.getInt(position) == ENTRY_MAGIC) {
+            int idLength = segment.getInt(position + 4);
+            if (idLength < 0 || position + 12 + idLength > capacity) {
+                break;
+            }
+            byte[] idBytes = new byte[idLength];
+            ByteBuffer buffer = segment.duplicate();
+            buffer.position(position + 8);
+            buffer.get(idBytes);
+            int dataLength = buffer.getInt();
+            int dataOffset = buffer.position();
+            String id = new String(idBytes, StandardCharsets.UTF_8);
+            if (dataLength == TOMBSTONE) {
+                index.remove(id);
+                position = dataOffset;
+            } else {
+                if (dataLength < 0 || dataOffset + dataLength > capacity) {
+                    break;
+                }
+                index.put(id, new Location(segmentIndex, dataOffset, dataLength));
+                position = dataOffset + dataLength;
+            }
+        }
+        return position;
+    }
+
+    private static MappedByteBuffer map(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static boolean isSegmentFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static final class Location {
+        private final int segment;
+        private final int offset;
+        private final int length;
+
+        private Location(int segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
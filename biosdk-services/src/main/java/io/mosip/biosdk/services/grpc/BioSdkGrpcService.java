@@ -0,0 +1,240 @@
+package io.mosip.biosdk.services.grpc;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.constants.SdkOperation;
+import io.mosip.biosdk.services.dispatch.RequestDispatcher;
+import io.mosip.biosdk.services.dto.RequestDto;
+import io.mosip.biosdk.services.dto.ResponseDto;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.biosdk.services.grpc.proto.BioSdkProto;
+import io.mosip.biosdk.services.grpc.proto.BioSdkServiceGrpc;
+import io.mosip.biosdk.services.metrics.SdkMetrics;
+import io.mosip.kernel.core.logger.spi.Logger;
+
+/**
+ * gRPC front end of the spec 1.0 operations. Requests are converted to the request DTOs
+ * and dispatched like the REST requests, so bulkheads, timeouts, caches and duplicate
+ * request handling apply alike; errors are returned in the response envelope.
+ */
+@Component
+@ConditionalOnProperty(name = "mosip.biosdk.grpc.enabled", havingValue = "true")
+public class BioSdkGrpcService extends BioSdkServiceGrpc.BioSdkServiceImplBase {
+
+    private Logger logger = LoggerConfig.logConfig(BioSdkGrpcService.class);
+
+    @Autowired
+    private RequestDispatcher dispatcher;
+
+    @Autowired
+    private SdkMetrics sdkMetrics;
+
+    /** Requests of a stream read ahead of the responses taken by the client */
+    @Value("${mosip.biosdk.grpc.stream.max-in-flight:16}")
+    private int maxInFlight;
+
+    @Override
+    public void init(BioSdkProto.InitRequest request, StreamObserver<BioSdkProto.InitResponse> responseObserver) {
+        unary(dispatch(SdkOperation.INIT, request.getVersion(), request.getSerializedSize(), () -> ProtoMapper.toDto(request), null),
+                ProtoMapper::toInitResponse, responseObserver);
+    }
+
+    @Override
+    public void checkQuality(BioSdkProto.CheckQualityRequest request,
+            StreamObserver<BioSdkProto.QualityCheckResponse> responseObserver) {
+        unary(dispatch(SdkOperation.CHECK_QUALITY, request.getVersion(), request.getSerializedSize(), () -> ProtoMapper.toDto(request), null),
+                ProtoMapper::toQualityCheckResponse, responseObserver);
+    }
+
+    @Override
+    public void match(BioSdkProto.MatchRequest request, StreamObserver<BioSdkProto.MatchResponse> responseObserver) {
+        unary(dispatch(SdkOperation.MATCH, request.getVersion(), request.getSerializedSize(), () -> ProtoMapper.toDto(request), request.getIdempotencyKey()),
+                ProtoMapper::toMatchResponse, responseObserver);
+    }
+
+    @Override
+    public void identify(BioSdkProto.IdentifyRequest request, StreamObserver<BioSdkProto.IdentifyResponse> responseObserver) {
+        unary(dispatch(SdkOperation.IDENTIFY, request.getVersion(), request.getSerializedSize(), () -> ProtoMapper.toDto(request), null),
+                ProtoMapper::toIdentifyResponse, responseObserver);
+    }
+
+    @Override
+    public void extractTemplate(BioSdkProto.ExtractTemplateRequest request,
+            StreamObserver<BioSdkProto.RecordResponse> responseObserver) {
+        unary(dispatch(SdkOperation.EXTRACT_TEMPLATE, request.getVersion(), request.getSerializedSize(), () -> ProtoMapper.toDto(request),
+                request.getIdempotencyKey()), ProtoMapper::toRecordResponse, responseObserver);
+    }
+
+    @Override
+    public void segment(BioSdkProto.SegmentRequest request, StreamObserver<BioSdkProto.RecordResponse> responseObserver) {
+        unary(dispatch(SdkOperation.SEGMENT, request.getVersion(), request.getSerializedSize(), () -> ProtoMapper.toDto(request), null),
+                ProtoMapper::toRecordResponse, responseObserver);
+    }
+
+    @Override
+    public void convertFormat(BioSdkProto.ConvertFormatRequest request,
+            StreamObserver<BioSdkProto.RecordResponse> responseObserver) {
+        unary(dispatch(SdkOperation.CONVERT_FORMAT, request.getVersion(), request.getSerializedSize(), () -> ProtoMapper.toDto(request), null),
+                ProtoMapper::toRecordResponse, responseObserver);
+    }
+
+    @Override
+    public StreamObserver<BioSdkProto.StreamRequest> process(StreamObserver<BioSdkProto.StreamResponse> responseObserver) {
+        return new ProcessStream((ServerCallStreamObserver<BioSdkProto.StreamResponse>) responseObserver);
+    }
+
+    private <R> void unary(CompletableFuture<ResponseDto> response, Function<ResponseDto, R> toProto,
+            StreamObserver<R> responseObserver) {
+        response.thenApply(toProto).whenComplete((message, t) -> {
+            if (t != null) {
+                logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "gRPC: ", t.toString());
+                responseObserver.onError(Status.INTERNAL.withDescription(t.toString()).asRuntimeException());
+            } else {
+                responseObserver.onNext(message);
+                responseObserver.onCompleted();
+            }
+        });
+    }
+
+    /**
+     * Dispatches the request converted by the payload supplier. A request that cannot be
+     * converted is answered with INVALID_REQUEST_BODY, as a REST request that cannot be decoded.
+     */
+    private CompletableFuture<ResponseDto> dispatch(SdkOperation operation, String version, int requestBytes,
+            Supplier<Object> payload, String idempotencyKey) {
+        sdkMetrics.recordRequestBytes(operation.getOperationName(), requestBytes);
+        RequestDto request = new RequestDto();
+        request.setVersion(version.isEmpty() ? null : version);
+        try {
+            request.setPayload(payload.get());
+        } catch (RuntimeException e) {
+            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, ErrorMessages.INVALID_REQUEST_BODY.toString(), e.toString());
+            return CompletableFuture.completedFuture(dispatcher.errorResponse(request.getVersion(), new BioSDKException(
+                    ErrorMessages.INVALID_REQUEST_BODY.toString(),
+                    ErrorMessages.INVALID_REQUEST_BODY.getMessage() + ": " + e.toString())));
+        }
+        return idempotencyKey == null || idempotencyKey.isEmpty()
+                ? dispatcher.dispatchAsync(operation, request)
+                : dispatcher.dispatchAsync(operation, request, idempotencyKey);
+    }
+
+    /**
+     * One Process call. Inbound flow control is manual: the stream starts with
+     * max-in-flight requests of credit, and a request more is read for every response
+     * handed to the transport. Responses completed while the client is not reading are
+     * held until the call is ready again, so a slow client stops the reading of requests
+     * instead of letting responses pile up.
+     */
+    private final class ProcessStream implements StreamObserver<BioSdkProto.StreamRequest> {
+        private final ServerCallStreamObserver<BioSdkProto.StreamResponse> responses;
+        private final Queue<BioSdkProto.StreamResponse> completed = new ArrayDeque<>();
+        /** Requests read whose responses are not sent yet */
+        private int inFlight;
+        private boolean halfClosed;
+        private boolean done;
+
+        private ProcessStream(ServerCallStreamObserver<BioSdkProto.StreamResponse> responses) {
+            this.responses = responses;
+            responses.disableAutoRequest();
+            responses.setOnReadyHandler(this::drain);
+            responses.setOnCancelHandler(this::cancel);
+            responses.request(Math.max(1, maxInFlight));
+        }
+
+        @Override
+        public void onNext(BioSdkProto.StreamRequest request) {
+            synchronized (this) {
+                inFlight++;
+            }
+            BioSdkProto.StreamResponse.Builder response = BioSdkProto.StreamResponse.newBuilder().setId(request.getId());
+            CompletableFuture<BioSdkProto.StreamResponse> result;
+            switch (request.getRequestCase()) {
+            case MATCH:
+                BioSdkProto.MatchRequest match = request.getMatch();
+                result = dispatch(SdkOperation.MATCH, match.getVersion(), match.getSerializedSize(), () -> ProtoMapper.toDto(match), match.getIdempotencyKey())
+                        .thenApply(responseDto -> response.setMatch(ProtoMapper.toMatchResponse(responseDto)).build());
+                break;
+            case EXTRACT_TEMPLATE:
+                BioSdkProto.ExtractTemplateRequest extract = request.getExtractTemplate();
+                result = dispatch(SdkOperation.EXTRACT_TEMPLATE, extract.getVersion(), extract.getSerializedSize(), () -> ProtoMapper.toDto(extract),
+                        extract.getIdempotencyKey())
+                        .thenApply(responseDto -> response.setExtractTemplate(ProtoMapper.toRecordResponse(responseDto)).build());
+                break;
+            default:
+                result = CompletableFuture.completedFuture(response.setError(ProtoMapper.toError(
+                        ErrorMessages.INVALID_REQUEST_BODY.toString(),
+                        ErrorMessages.INVALID_REQUEST_BODY.getMessage() + ": no match or extract-template request")).build());
+            }
+            result.whenComplete((message, t) -> {
+                if (t != null) {
+                    logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "gRPC stream: ", t.toString());
+                    message = response.setError(ProtoMapper.toError(ErrorMessages.UNCHECKED_EXCEPTION.toString(),
+                            t.toString())).build();
+                }
+                complete(message);
+            });
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            cancel();
+        }
+
+        @Override
+        public synchronized void onCompleted() {
+            halfClosed = true;
+            drain();
+        }
+
+        private void complete(BioSdkProto.StreamResponse response) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                completed.add(response);
+            }
+            drain();
+        }
+
+        /** Sends the completed responses the call can take, and ends the call after the last one */
+        private synchronized void drain() {
+            if (done) {
+                return;
+            }
+            int sent = 0;
+            while (!completed.isEmpty() && responses.isReady()) {
+                responses.onNext(completed.poll());
+                inFlight--;
+                sent++;
+            }
+            if (halfClosed && inFlight == 0) {
+                done = true;
+                responses.onCompleted();
+            } else if (sent > 0 && !halfClosed) {
+                responses.request(sent);
+            }
+        }
+
+        private synchronized void cancel() {
+            done = true;
+            completed.clear();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.mosip.biosdk.services.grpc;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.kernel.core.logger.spi.Logger;
+
+/**
+ * Serves {@link BioSdkGrpcService} once the application is ready, on a TCP port or, with
+ * mosip.biosdk.grpc.in-process-name, in-process only for clients in the same JVM.
+ */
+@Component
+@ConditionalOnProperty(name = "mosip.biosdk.grpc.enabled", havingValue = "true")
+public class GrpcServer {
+
+    private Logger logger = LoggerConfig.logConfig(GrpcServer.class);
+
+    @Autowired
+    private BioSdkGrpcService bioSdkGrpcService;
+
+    @Value("${mosip.biosdk.grpc.port:9090}")
+    private int port;
+
+    /** Name of an in-process server to start instead of listening on the port */
+    @Value("${mosip.biosdk.grpc.in-process-name:}")
+    private String inProcessName;
+
+    /** Largest request accepted, galleries of full records run into tens of MB */
+    @Value("${mosip.biosdk.grpc.max-message-size-mb:64}")
+    private int maxMessageSizeMb;
+
+    /** Time given to running calls to complete on shutdown */
+    @Value("${mosip.biosdk.grpc.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private Server server;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        ServerBuilder<?> builder = inProcessName.isEmpty()
+                ? ServerBuilder.forPort(port)
+                : InProcessServerBuilder.forName(inProcessName);
+        server = builder.addService(bioSdkGrpcService)
+                .maxInboundMessageSize(maxMessageSizeMb * 1024 * 1024)
+                .build()
+                .start();
+        logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "gRPC: ", inProcessName.isEmpty()
+                ? "listening on port " + server.getPort()
+                : "serving in-process as " + inProcessName);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (server == null) {
+            return;
+        }
+        server.shutdown();
+        if (!server.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+            server.shutdownNow();
+        }
+    }
+}
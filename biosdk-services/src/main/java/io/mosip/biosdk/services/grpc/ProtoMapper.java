@@ -0,0 +1,504 @@
+package io.mosip.biosdk.services.grpc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import com.google.protobuf.ByteString;
+
+import io.mosip.biosdk.services.dto.ErrorDto;
+import io.mosip.biosdk.services.dto.ResponseDto;
+import io.mosip.biosdk.services.grpc.proto.BioSdkProto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.CheckQualityRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ConvertFormatRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ExtractTemplateRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.IdentifyRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.InitRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.SegmentRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.response.IdentifyCandidateDto;
+import io.mosip.kernel.biometrics.constant.BiometricFunction;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.ProcessedLevelType;
+import io.mosip.kernel.biometrics.constant.PurposeType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BIRInfo;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.entities.RegistryIDType;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.QualityScore;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+
+/**
+ * Converts between the protobuf messages of the gRPC service and the request DTOs and
+ * SDK responses of spec 1.0. Unknown enum names fail with an IllegalArgumentException.
+ */
+final class ProtoMapper {
+
+    private ProtoMapper() {
+    }
+
+    static InitRequestDto toDto(BioSdkProto.InitRequest request) {
+        InitRequestDto dto = new InitRequestDto();
+        dto.setInitParams(new HashMap<>(request.getInitParamsMap()));
+        return dto;
+    }
+
+    static CheckQualityRequestDto toDto(BioSdkProto.CheckQualityRequest request) {
+        CheckQualityRequestDto dto = new CheckQualityRequestDto();
+        dto.setSample(toRecord(request.getSample()));
+        dto.setModalitiesToCheck(toModalities(request.getModalitiesToCheckList()));
+        dto.setFlags(new HashMap<>(request.getFlagsMap()));
+        return dto;
+    }
+
+    static MatchRequestDto toDto(BioSdkProto.MatchRequest request) {
+        MatchRequestDto dto = new MatchRequestDto();
+        dto.setSample(toRecord(request.getSample()));
+        BiometricRecord[] gallery = new BiometricRecord[request.getGalleryCount()];
+        for (int i = 0; i < gallery.length; i++) {
+            gallery[i] = toRecord(request.getGallery(i));
+        }
+        dto.setGallery(gallery);
+        if (request.getGalleryIdsCount() > 0) {
+            dto.setGalleryIds(request.getGalleryIdsList().toArray(new String[0]));
+        }
+        dto.setModalitiesToMatch(toModalities(request.getModalitiesToMatchList()));
+        dto.setFlags(new HashMap<>(request.getFlagsMap()));
+        return dto;
+    }
+
+    static IdentifyRequestDto toDto(BioSdkProto.IdentifyRequest request) {
+        IdentifyRequestDto dto = new IdentifyRequestDto();
+        dto.setSample(toRecord(request.getSample()));
+        dto.setModalitiesToMatch(toModalities(request.getModalitiesToMatchList()));
+        if (request.hasTopK()) {
+            dto.setTopK(request.getTopK());
+        }
+        dto.setFlags(new HashMap<>(request.getFlagsMap()));
+        return dto;
+    }
+
+    static ExtractTemplateRequestDto toDto(BioSdkProto.ExtractTemplateRequest request) {
+        ExtractTemplateRequestDto dto = new ExtractTemplateRequestDto();
+        dto.setSample(toRecord(request.getSample()));
+        dto.setModalitiesToExtract(toModalities(request.getModalitiesToExtractList()));
+        dto.setFlags(new HashMap<>(request.getFlagsMap()));
+        return dto;
+    }
+
+    static SegmentRequestDto toDto(BioSdkProto.SegmentRequest request) {
+        SegmentRequestDto dto = new SegmentRequestDto();
+        dto.setSample(toRecord(request.getSample()));
+        dto.setModalitiesToSegment(toModalities(request.getModalitiesToSegmentList()));
+        dto.setFlags(new HashMap<>(request.getFlagsMap()));
+        return dto;
+    }
+
+    static ConvertFormatRequestDto toDto(BioSdkProto.ConvertFormatRequest request) {
+        ConvertFormatRequestDto dto = new ConvertFormatRequestDto();
+        dto.setSample(toRecord(request.getSample()));
+        dto.setSourceFormat(emptyToNull(request.getSourceFormat()));
+        dto.setTargetFormat(emptyToNull(request.getTargetFormat()));
+        dto.setSourceParams(new HashMap<>(request.getSourceParamsMap()));
+        dto.setTargetParams(new HashMap<>(request.getTargetParamsMap()));
+        dto.setModalitiesToConvert(toModalities(request.getModalitiesToConvertList()));
+        return dto;
+    }
+
+    static BioSdkProto.InitResponse toInitResponse(ResponseDto<?> responseDto) {
+        BioSdkProto.InitResponse.Builder builder = BioSdkProto.InitResponse.newBuilder()
+                .setVersion(nullToEmpty(responseDto.getVersion()))
+                .setResponsetime(nullToEmpty(responseDto.getResponsetime()))
+                .addAllErrors(toErrors(responseDto));
+        if (responseDto.getResponse() instanceof SDKInfo) {
+            builder.setResponse(toProto((SDKInfo) responseDto.getResponse()));
+        }
+        return builder.build();
+    }
+
+    static BioSdkProto.QualityCheckResponse toQualityCheckResponse(ResponseDto<?> responseDto) {
+        BioSdkProto.QualityCheckResponse.Builder builder = BioSdkProto.QualityCheckResponse.newBuilder()
+                .setVersion(nullToEmpty(responseDto.getVersion()))
+                .setResponsetime(nullToEmpty(responseDto.getResponsetime()))
+                .addAllErrors(toErrors(responseDto));
+        Response<?> response = sdkResponseOf(responseDto);
+        if (response != null) {
+            BioSdkProto.QualityCheckResult.Builder result = BioSdkProto.QualityCheckResult.newBuilder()
+                    .setStatusCode(statusCodeOf(response))
+                    .setStatusMessage(nullToEmpty(response.getStatusMessage()));
+            if (response.getResponse() instanceof QualityCheck) {
+                result.setResponse(toProto((QualityCheck) response.getResponse()));
+            }
+            builder.setResponse(result);
+        }
+        return builder.build();
+    }
+
+    static BioSdkProto.MatchResponse toMatchResponse(ResponseDto<?> responseDto) {
+        BioSdkProto.MatchResponse.Builder builder = BioSdkProto.MatchResponse.newBuilder()
+                .setVersion(nullToEmpty(responseDto.getVersion()))
+                .setResponsetime(nullToEmpty(responseDto.getResponsetime()))
+                .addAllErrors(toErrors(responseDto));
+        Response<?> response = sdkResponseOf(responseDto);
+        if (response != null) {
+            BioSdkProto.MatchResult.Builder result = BioSdkProto.MatchResult.newBuilder()
+                    .setStatusCode(statusCodeOf(response))
+                    .setStatusMessage(nullToEmpty(response.getStatusMessage()));
+            if (response.getResponse() instanceof MatchDecision[]) {
+                for (MatchDecision decision : (MatchDecision[]) response.getResponse()) {
+                    if (decision != null) {
+                        result.addResponse(toProto(decision));
+                    }
+                }
+            }
+            builder.setResponse(result);
+        }
+        return builder.build();
+    }
+
+    static BioSdkProto.IdentifyResponse toIdentifyResponse(ResponseDto<?> responseDto) {
+        BioSdkProto.IdentifyResponse.Builder builder = BioSdkProto.IdentifyResponse.newBuilder()
+                .setVersion(nullToEmpty(responseDto.getVersion()))
+                .setResponsetime(nullToEmpty(responseDto.getResponsetime()))
+                .addAllErrors(toErrors(responseDto));
+        Response<?> response = sdkResponseOf(responseDto);
+        if (response != null) {
+            BioSdkProto.IdentifyResult.Builder result = BioSdkProto.IdentifyResult.newBuilder()
+                    .setStatusCode(statusCodeOf(response))
+                    .setStatusMessage(nullToEmpty(response.getStatusMessage()));
+            if (response.getResponse() instanceof IdentifyCandidateDto[]) {
+                for (IdentifyCandidateDto candidate : (IdentifyCandidateDto[]) response.getResponse()) {
+                    result.addResponse(toProto(candidate));
+                }
+            }
+            builder.setResponse(result);
+        }
+        return builder.build();
+    }
+
+    static BioSdkProto.RecordResponse toRecordResponse(ResponseDto<?> responseDto) {
+        BioSdkProto.RecordResponse.Builder builder = BioSdkProto.RecordResponse.newBuilder()
+                .setVersion(nullToEmpty(responseDto.getVersion()))
+                .setResponsetime(nullToEmpty(responseDto.getResponsetime()))
+                .addAllErrors(toErrors(responseDto));
+        Response<?> response = sdkResponseOf(responseDto);
+        if (response != null) {
+            BioSdkProto.RecordResult.Builder result = BioSdkProto.RecordResult.newBuilder()
+                    .setStatusCode(statusCodeOf(response))
+                    .setStatusMessage(nullToEmpty(response.getStatusMessage()));
+            if (response.getResponse() instanceof BiometricRecord) {
+                result.setResponse(toProto((BiometricRecord) response.getResponse()));
+            }
+            builder.setResponse(result);
+        }
+        return builder.build();
+    }
+
+    static BioSdkProto.ErrorInfo toError(String code, String message) {
+        return BioSdkProto.ErrorInfo.newBuilder().setCode(nullToEmpty(code)).setMessage(nullToEmpty(message)).build();
+    }
+
+    static BiometricRecord toRecord(BioSdkProto.BiometricRecord proto) {
+        BiometricRecord record = new BiometricRecord();
+        if (proto.hasBirInfo()) {
+            record.setBirInfo(toBirInfo(proto.getBirInfo()));
+        }
+        List<BIR> segments = new ArrayList<>(proto.getSegmentsCount());
+        for (BioSdkProto.Bir segment : proto.getSegmentsList()) {
+            segments.add(toBir(segment));
+        }
+        record.setSegments(segments);
+        return record;
+    }
+
+    static BioSdkProto.BiometricRecord toProto(BiometricRecord record) {
+        BioSdkProto.BiometricRecord.Builder builder = BioSdkProto.BiometricRecord.newBuilder();
+        if (record.getBirInfo() != null) {
+            builder.setBirInfo(toProto(record.getBirInfo()));
+        }
+        if (record.getSegments() != null) {
+            for (BIR segment : record.getSegments()) {
+                if (segment != null) {
+                    builder.addSegments(toProto(segment));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static BIR toBir(BioSdkProto.Bir proto) {
+        BIR bir = new BIR();
+        if (proto.hasBirInfo()) {
+            bir.setBirInfo(toBirInfo(proto.getBirInfo()));
+        }
+        if (proto.hasBdbInfo()) {
+            bir.setBdbInfo(toBdbInfo(proto.getBdbInfo()));
+        }
+        bir.setBdb(toBytes(proto.getBdb()));
+        bir.setSb(toBytes(proto.getSb()));
+        return bir;
+    }
+
+    private static BioSdkProto.Bir toProto(BIR bir) {
+        BioSdkProto.Bir.Builder builder = BioSdkProto.Bir.newBuilder();
+        if (bir.getBirInfo() != null) {
+            builder.setBirInfo(toProto(bir.getBirInfo()));
+        }
+        if (bir.getBdbInfo() != null) {
+            builder.setBdbInfo(toProto(bir.getBdbInfo()));
+        }
+        if (bir.getBdb() != null) {
+            builder.setBdb(ByteString.copyFrom(bir.getBdb()));
+        }
+        if (bir.getSb() != null) {
+            builder.setSb(ByteString.copyFrom(bir.getSb()));
+        }
+        return builder.build();
+    }
+
+    private static BDBInfo toBdbInfo(BioSdkProto.BdbInfo proto) {
+        BDBInfo bdbInfo = new BDBInfo();
+        bdbInfo.setChallengeResponse(toBytes(proto.getChallengeResponse()));
+        if (proto.hasFormat()) {
+            bdbInfo.setFormat(toRegistryId(proto.getFormat()));
+        }
+        if (proto.hasEncryption()) {
+            bdbInfo.setEncryption(proto.getEncryption());
+        }
+        bdbInfo.setCreationDate(toDate(proto.getCreationDate()));
+        bdbInfo.setType(toModalities(proto.getTypeList()));
+        bdbInfo.setSubtype(new ArrayList<>(proto.getSubtypeList()));
+        bdbInfo.setLevel(proto.getLevel().isEmpty() ? null : ProcessedLevelType.valueOf(proto.getLevel()));
+        bdbInfo.setPurpose(proto.getPurpose().isEmpty() ? null : PurposeType.valueOf(proto.getPurpose()));
+        return bdbInfo;
+    }
+
+    private static BioSdkProto.BdbInfo toProto(BDBInfo bdbInfo) {
+        BioSdkProto.BdbInfo.Builder builder = BioSdkProto.BdbInfo.newBuilder();
+        if (bdbInfo.getChallengeResponse() != null) {
+            builder.setChallengeResponse(ByteString.copyFrom(bdbInfo.getChallengeResponse()));
+        }
+        if (bdbInfo.getFormat() != null) {
+            builder.setFormat(toProto(bdbInfo.getFormat()));
+        }
+        if (bdbInfo.getEncryption() != null) {
+            builder.setEncryption(bdbInfo.getEncryption());
+        }
+        if (bdbInfo.getCreationDate() != null) {
+            builder.setCreationDate(bdbInfo.getCreationDate().toString());
+        }
+        if (bdbInfo.getType() != null) {
+            builder.addAllType(toNames(bdbInfo.getType()));
+        }
+        if (bdbInfo.getSubtype() != null) {
+            builder.addAllSubtype(bdbInfo.getSubtype());
+        }
+        if (bdbInfo.getLevel() != null) {
+            builder.setLevel(bdbInfo.getLevel().name());
+        }
+        if (bdbInfo.getPurpose() != null) {
+            builder.setPurpose(bdbInfo.getPurpose().name());
+        }
+        return builder.build();
+    }
+
+    private static BIRInfo toBirInfo(BioSdkProto.BirInfo proto) {
+        BIRInfo birInfo = new BIRInfo();
+        birInfo.setPayload(toBytes(proto.getPayload()));
+        if (proto.hasIntegrity()) {
+            birInfo.setIntegrity(proto.getIntegrity());
+        }
+        birInfo.setCreationDate(toDate(proto.getCreationDate()));
+        return birInfo;
+    }
+
+    private static BioSdkProto.BirInfo toProto(BIRInfo birInfo) {
+        BioSdkProto.BirInfo.Builder builder = BioSdkProto.BirInfo.newBuilder();
+        if (birInfo.getPayload() != null) {
+            builder.setPayload(ByteString.copyFrom(birInfo.getPayload()));
+        }
+        if (birInfo.getIntegrity() != null) {
+            builder.setIntegrity(birInfo.getIntegrity());
+        }
+        if (birInfo.getCreationDate() != null) {
+            builder.setCreationDate(birInfo.getCreationDate().toString());
+        }
+        return builder.build();
+    }
+
+    private static RegistryIDType toRegistryId(BioSdkProto.RegistryId proto) {
+        RegistryIDType registryId = new RegistryIDType();
+        registryId.setOrganization(emptyToNull(proto.getOrganization()));
+        registryId.setType(emptyToNull(proto.getType()));
+        return registryId;
+    }
+
+    private static BioSdkProto.RegistryId toProto(RegistryIDType registryId) {
+        return BioSdkProto.RegistryId.newBuilder()
+                .setOrganization(nullToEmpty(registryId.getOrganization()))
+                .setType(nullToEmpty(registryId.getType()))
+                .build();
+    }
+
+    private static BioSdkProto.SdkInfo toProto(SDKInfo sdkInfo) {
+        BioSdkProto.SdkInfo.Builder builder = BioSdkProto.SdkInfo.newBuilder()
+                .setApiVersion(nullToEmpty(sdkInfo.getApiVersion()))
+                .setSdkVersion(nullToEmpty(sdkInfo.getSdkVersion()));
+        if (sdkInfo.getSupportedModalities() != null) {
+            builder.addAllSupportedModalities(toNames(sdkInfo.getSupportedModalities()));
+        }
+        if (sdkInfo.getSupportedMethods() != null) {
+            for (Map.Entry<BiometricFunction, List<BiometricType>> method : sdkInfo.getSupportedMethods().entrySet()) {
+                builder.putSupportedMethods(method.getKey().name(), BioSdkProto.Modalities.newBuilder()
+                        .addAllModalities(toNames(method.getValue())).build());
+            }
+        }
+        putAll(sdkInfo.getOtherInfo(), builder::putOtherInfo);
+        if (sdkInfo.getProductOwner() != null) {
+            builder.setProductOwner(toProto(sdkInfo.getProductOwner()));
+        }
+        return builder.build();
+    }
+
+    private static BioSdkProto.QualityCheck toProto(QualityCheck qualityCheck) {
+        BioSdkProto.QualityCheck.Builder builder = BioSdkProto.QualityCheck.newBuilder();
+        if (qualityCheck.getScores() != null) {
+            for (Map.Entry<BiometricType, QualityScore> score : qualityCheck.getScores().entrySet()) {
+                if (score.getValue() == null) {
+                    continue;
+                }
+                BioSdkProto.QualityScore.Builder scoreBuilder = BioSdkProto.QualityScore.newBuilder()
+                        .setScore(score.getValue().getScore())
+                        .addAllErrors(toStrings(score.getValue().getErrors()));
+                putAll(score.getValue().getAnalyticsInfo(), scoreBuilder::putAnalyticsInfo);
+                builder.putScores(score.getKey().name(), scoreBuilder.build());
+            }
+        }
+        putAll(qualityCheck.getAnalyticsInfo(), builder::putAnalyticsInfo);
+        return builder.build();
+    }
+
+    private static BioSdkProto.MatchDecision toProto(MatchDecision matchDecision) {
+        BioSdkProto.MatchDecision.Builder builder = BioSdkProto.MatchDecision.newBuilder()
+                .setGalleryIndex(matchDecision.getGalleryIndex());
+        if (matchDecision.getDecisions() != null) {
+            for (Map.Entry<BiometricType, Decision> decision : matchDecision.getDecisions().entrySet()) {
+                if (decision.getValue() == null) {
+                    continue;
+                }
+                BioSdkProto.Decision.Builder decisionBuilder = BioSdkProto.Decision.newBuilder()
+                        .addAllErrors(toStrings(decision.getValue().getErrors()));
+                if (decision.getValue().getMatch() != null) {
+                    decisionBuilder.setMatch(decision.getValue().getMatch().name());
+                }
+                putAll(decision.getValue().getAnalyticsInfo(), decisionBuilder::putAnalyticsInfo);
+                builder.putDecisions(decision.getKey().name(), decisionBuilder.build());
+            }
+        }
+        putAll(matchDecision.getAnalyticsInfo(), builder::putAnalyticsInfo);
+        return builder.build();
+    }
+
+    private static BioSdkProto.IdentifyCandidate toProto(IdentifyCandidateDto candidate) {
+        BioSdkProto.IdentifyCandidate.Builder builder = BioSdkProto.IdentifyCandidate.newBuilder()
+                .setGalleryId(nullToEmpty(candidate.getGalleryId()))
+                .setScore(candidate.getScore());
+        if (candidate.getScores() != null) {
+            for (Map.Entry<BiometricType, Double> score : candidate.getScores().entrySet()) {
+                if (score.getValue() != null) {
+                    builder.putScores(score.getKey().name(), score.getValue());
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static List<BioSdkProto.ErrorInfo> toErrors(ResponseDto<?> responseDto) {
+        List<BioSdkProto.ErrorInfo> errors = new ArrayList<>();
+        if (responseDto.getErrors() != null) {
+            for (ErrorDto error : responseDto.getErrors()) {
+                errors.add(toError(error.getCode(), error.getMessage()));
+            }
+        }
+        return errors;
+    }
+
+    private static Response<?> sdkResponseOf(ResponseDto<?> responseDto) {
+        return responseDto.getResponse() instanceof Response ? (Response<?>) responseDto.getResponse() : null;
+    }
+
+    private static int statusCodeOf(Response<?> response) {
+        return response.getStatusCode() == null ? 0 : response.getStatusCode();
+    }
+
+    /**
+     * @return null for none, meaning all modalities, as when the list is left out of a
+     *         REST request
+     */
+    private static List<BiometricType> toModalities(List<String> names) {
+        if (names.isEmpty()) {
+            return null;
+        }
+        List<BiometricType> modalities = new ArrayList<>(names.size());
+        for (String name : names) {
+            modalities.add(BiometricType.valueOf(name));
+        }
+        return modalities;
+    }
+
+    private static List<String> toNames(List<BiometricType> modalities) {
+        List<String> names = new ArrayList<>();
+        if (modalities != null) {
+            for (BiometricType modality : modalities) {
+                if (modality != null) {
+                    names.add(modality.name());
+                }
+            }
+        }
+        return names;
+    }
+
+    private static List<String> toStrings(List<?> values) {
+        List<String> strings = new ArrayList<>();
+        if (values != null) {
+            for (Object value : values) {
+                strings.add(String.valueOf(value));
+            }
+        }
+        return strings;
+    }
+
+    private static <V> void putAll(Map<String, V> source, BiConsumer<String, V> target) {
+        if (source != null) {
+            for (Map.Entry<String, V> entry : source.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) {
+                    target.accept(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    private static LocalDateTime toDate(String value) {
+        return value.isEmpty() ? null : LocalDateTime.parse(value);
+    }
+
+    private static byte[] toBytes(ByteString bytes) {
+        return bytes.isEmpty() ? null : bytes.toByteArray();
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -3,25 +3,42 @@ package io.mosip.biosdk.services.impl.spec_1_0;
 import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
 import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
 
+import io.mosip.biosdk.services.audit.AuditLog;
+import io.mosip.biosdk.services.cache.CheckQualityCache;
+import io.mosip.biosdk.services.cache.ExtractTemplateCache;
 import io.mosip.biosdk.services.config.LoggerConfig;
 import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.constants.SdkOperation;
+import io.mosip.biosdk.services.dedup.RequestCoalescer;
 import io.mosip.biosdk.services.dto.RequestDto;
 import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.biosdk.services.gallery.GalleryRegistry;
 import io.mosip.biosdk.services.impl.spec_1_0.dto.request.CheckQualityRequestDto;
 import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ConvertFormatRequestDto;
 import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ExtractTemplateRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.IdentifyRequestDto;
 import io.mosip.biosdk.services.impl.spec_1_0.dto.request.InitRequestDto;
 import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
 import io.mosip.biosdk.services.impl.spec_1_0.dto.request.SegmentRequestDto;
+import io.mosip.biosdk.services.metrics.SdkMetrics;
+import io.mosip.biosdk.services.sdk.OperationBulkheads;
 import io.mosip.biosdk.services.spi.BioSdkServiceProvider;
+import io.mosip.biosdk.services.utils.CborCodec;
 import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.constant.BiometricType;
 import io.mosip.kernel.biometrics.entities.BiometricRecord;
 import io.mosip.kernel.biometrics.model.Response;
 import io.mosip.kernel.biometrics.model.SDKInfo;
@@ -44,7 +61,41 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
     @Autowired
     private Utils utils;
 
-    private Gson gson = new GsonBuilder().serializeNulls().create();
+    @Autowired
+    private CborCodec cborCodec;
+
+    @Autowired
+    private GalleryMatcher galleryMatcher;
+
+    @Autowired
+    private GalleryIdentifier galleryIdentifier;
+
+    @Autowired
+    private ModalityFanOut modalityFanOut;
+
+    @Autowired
+    private OperationBulkheads bulkheads;
+
+    @Autowired
+    private ExtractTemplateCache extractTemplateCache;
+
+    @Autowired
+    private CheckQualityCache checkQualityCache;
+
+    @Autowired
+    private GalleryRegistry galleryRegistry;
+
+    @Autowired
+    private SdkMetrics sdkMetrics;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private Gson gson;
     
     @Value("${mosip.biosdk.log-request-response-enabled:false}")
     private boolean isLogRequestResponse;
@@ -54,19 +105,41 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
         return BIOSDK_SERVICE_SPEC_VERSION;
     }
 
+    @Override
+    public Class<?> getRequestType(SdkOperation operation) {
+        switch (operation) {
+        case INIT:
+            return InitRequestDto.class;
+        case CHECK_QUALITY:
+            return CheckQualityRequestDto.class;
+        case MATCH:
+            return MatchRequestDto.class;
+        case IDENTIFY:
+            return IdentifyRequestDto.class;
+        case EXTRACT_TEMPLATE:
+            return ExtractTemplateRequestDto.class;
+        case SEGMENT:
+            return SegmentRequestDto.class;
+        case CONVERT_FORMAT:
+            return ConvertFormatRequestDto.class;
+        default:
+            return null;
+        }
+    }
+
     @Override
     public Object init(RequestDto request){
         SDKInfo sdkInfo = null;
-        String decryptedRequest = decode(request.getRequest());
-        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"init: ", "decoding successful");
-        InitRequestDto initRequestDto = gson.fromJson(decryptedRequest, InitRequestDto.class);
-        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"init: ", "json to dto successful");
+        InitRequestDto initRequestDto = decode(SdkOperation.INIT, request, InitRequestDto.class);
+        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"init: ", "decoding and json to dto successful");
         try {
         	logRequest(initRequestDto);
-            sdkInfo = iBioApi.init(initRequestDto.getInitParams());
+            sdkInfo = callSdk(SdkOperation.INIT, request, null, () -> iBioApi.init(initRequestDto.getInitParams()));
             logObject(sdkInfo);
+        } catch (BioSDKException e){
+            throw e;
         } catch (Throwable e){
-            e.printStackTrace();
+            auditLog.failure("init: ", e);
             logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE,"init: ", e.toString()+" "+e.getMessage());
             throw new BioSDKException(ErrorMessages.BIOSDK_LIB_EXCEPTION.toString(), ErrorMessages.BIOSDK_LIB_EXCEPTION.getMessage()+": "+e.getMessage());
         }
@@ -76,20 +149,25 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 	@Override
     public Object checkQuality(RequestDto request) {
         Response response;
-        String decryptedRequest = decode(request.getRequest());
-        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"checkQuality: ", "decoding successful");
-        CheckQualityRequestDto checkQualityRequestDto = gson.fromJson(decryptedRequest, CheckQualityRequestDto.class);
-        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"checkQuality: ", "json to dto successful");
+        CheckQualityRequestDto checkQualityRequestDto = decode(SdkOperation.CHECK_QUALITY, request, CheckQualityRequestDto.class);
+        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"checkQuality: ", "decoding and json to dto successful");
+        sdkMetrics.recordSegments(SdkOperation.CHECK_QUALITY.getOperationName(), checkQualityRequestDto.getSample());
+        boolean fannedOut = modalityFanOut.isFannedOut(checkQualityRequestDto.getFlags());
+        checkQualityRequestDto.setFlags(ModalityFanOut.withoutFlag(checkQualityRequestDto.getFlags()));
         try {
         	logRequest(checkQualityRequestDto);
-            response = iBioApi.checkQuality(
-                    checkQualityRequestDto.getSample(),
-                    checkQualityRequestDto.getModalitiesToCheck(),
-                    checkQualityRequestDto.getFlags()
-            );
+            response = checkQualityCache.checkQuality(checkQualityRequestDto, () ->
+                    callSdk(SdkOperation.CHECK_QUALITY, request, checkQualityRequestDto.getModalitiesToCheck(), () -> modalityFanOut.checkQuality(
+                            checkQualityRequestDto.getSample(),
+                            checkQualityRequestDto.getModalitiesToCheck(),
+                            checkQualityRequestDto.getFlags(),
+                            fannedOut
+                    )));
             logResponse(response);
+        } catch (BioSDKException e){
+            throw e;
         } catch (Throwable e){
-            e.printStackTrace();
+            auditLog.failure("checkQuality: ", e);
             logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE,"checkQuality: ", e.toString()+" "+e.getMessage());
             throw new BioSDKException(ErrorMessages.BIOSDK_LIB_EXCEPTION.toString(), ErrorMessages.BIOSDK_LIB_EXCEPTION.getMessage()+": "+e.toString()+" "+e.getMessage());
         }
@@ -99,44 +177,74 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
     @Override
     public Object match(RequestDto request) {
         Response response;
-        String decryptedRequest = decode(request.getRequest());
-        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"match: ", "decoding successful");
-        MatchRequestDto matchRequestDto = gson.fromJson(decryptedRequest, MatchRequestDto.class);
-        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"match: ", "json to dto successful");
+        MatchRequestDto matchRequestDto = decode(SdkOperation.MATCH, request, MatchRequestDto.class);
+        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"match: ", "decoding and json to dto successful");
+        sdkMetrics.recordSegments(SdkOperation.MATCH.getOperationName(), matchRequestDto.getSample());
+        // keyed on the gallery ids, before the registered records are resolved
+        ByteBuffer coalescingKey = requestCoalescer.matchKey(request.getVersion(), matchRequestDto);
+        resolveGallery(matchRequestDto);
+        if (matchRequestDto.getGallery() != null) {
+            sdkMetrics.recordGallerySize(SdkOperation.MATCH.getOperationName(), matchRequestDto.getGallery().length);
+        }
         try {
         	logRequest(matchRequestDto);
-            response = iBioApi.match(
-                    matchRequestDto.getSample(),
-                    matchRequestDto.getGallery(),
-                    matchRequestDto.getModalitiesToMatch(),
-                    matchRequestDto.getFlags()
-            );
+            response = requestCoalescer.coalesce(SdkOperation.MATCH, coalescingKey,
+                    () -> callSdk(SdkOperation.MATCH, request, matchRequestDto.getModalitiesToMatch(), () -> galleryMatcher.match(matchRequestDto)));
             logResponse(response);
+        } catch (BioSDKException e){
+            throw e;
         } catch (Throwable e){
-            e.printStackTrace();
+            auditLog.failure("match: ", e);
             logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE,"match: ", e.toString()+" "+e.getMessage());
             throw new BioSDKException(ErrorMessages.BIOSDK_LIB_EXCEPTION.toString(), ErrorMessages.BIOSDK_LIB_EXCEPTION.getMessage()+": "+e.toString()+" "+e.getMessage());
         }
         return response;
     }
 
+    @Override
+    public Object identify(RequestDto request) {
+        Response response;
+        IdentifyRequestDto identifyRequestDto = decode(SdkOperation.IDENTIFY, request, IdentifyRequestDto.class);
+        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"identify: ", "decoding and json to dto successful");
+        sdkMetrics.recordSegments(SdkOperation.IDENTIFY.getOperationName(), identifyRequestDto.getSample());
+        try {
+        	logRequest(identifyRequestDto);
+            response = callSdk(SdkOperation.IDENTIFY, request, identifyRequestDto.getModalitiesToMatch(), () -> galleryIdentifier.identify(identifyRequestDto));
+            logResponse(response);
+        } catch (BioSDKException e){
+            throw e;
+        } catch (Throwable e){
+            auditLog.failure("identify: ", e);
+            logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE,"identify: ", e.toString()+" "+e.getMessage());
+            throw new BioSDKException(ErrorMessages.BIOSDK_LIB_EXCEPTION.toString(), ErrorMessages.BIOSDK_LIB_EXCEPTION.getMessage()+": "+e.toString()+" "+e.getMessage());
+        }
+        return response;
+    }
+
     @Override
     public Object extractTemplate(RequestDto request) {
         Response response;
-        String decryptedRequest = decode(request.getRequest());
-        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"extractTemplate: ", "decoding successful");
-        ExtractTemplateRequestDto extractTemplateRequestDto = gson.fromJson(decryptedRequest, ExtractTemplateRequestDto.class);
-        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"extractTemplate: ", "json to dto successful");
+        ExtractTemplateRequestDto extractTemplateRequestDto = decode(SdkOperation.EXTRACT_TEMPLATE, request, ExtractTemplateRequestDto.class);
+        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"extractTemplate: ", "decoding and json to dto successful");
+        sdkMetrics.recordSegments(SdkOperation.EXTRACT_TEMPLATE.getOperationName(), extractTemplateRequestDto.getSample());
+        boolean fannedOut = modalityFanOut.isFannedOut(extractTemplateRequestDto.getFlags());
+        extractTemplateRequestDto.setFlags(ModalityFanOut.withoutFlag(extractTemplateRequestDto.getFlags()));
         try {
         	logRequest(extractTemplateRequestDto);
-            response = iBioApi.extractTemplate(
-                    extractTemplateRequestDto.getSample(),
-                    extractTemplateRequestDto.getModalitiesToExtract(),
-                    extractTemplateRequestDto.getFlags()
-            );
+            response = requestCoalescer.coalesce(SdkOperation.EXTRACT_TEMPLATE,
+                    requestCoalescer.extractTemplateKey(request.getVersion(), extractTemplateRequestDto),
+                    () -> extractTemplateCache.extract(extractTemplateRequestDto, () ->
+                    callSdk(SdkOperation.EXTRACT_TEMPLATE, request, extractTemplateRequestDto.getModalitiesToExtract(), () -> modalityFanOut.extractTemplate(
+                            extractTemplateRequestDto.getSample(),
+                            extractTemplateRequestDto.getModalitiesToExtract(),
+                            extractTemplateRequestDto.getFlags(),
+                            fannedOut
+                    ))));
             logResponse(response);
+        } catch (BioSDKException e){
+            throw e;
         } catch (Throwable e){
-            e.printStackTrace();
+            auditLog.failure("extractTemplate: ", e);
             logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE,"extractTemplate: ", e.toString()+" "+e.getMessage());
             throw new BioSDKException(ErrorMessages.BIOSDK_LIB_EXCEPTION.toString(), ErrorMessages.BIOSDK_LIB_EXCEPTION.getMessage()+": "+e.toString()+" "+e.getMessage());
         }
@@ -146,20 +254,24 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 	@Override
     public Object segment(RequestDto request) {
         Response response;
-        String decryptedRequest = decode(request.getRequest());
-        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"segment: ", "decoding successful");
-        SegmentRequestDto segmentRequestDto = gson.fromJson(decryptedRequest, SegmentRequestDto.class);
-        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"segment: ", "json to dto successful");
+        SegmentRequestDto segmentRequestDto = decode(SdkOperation.SEGMENT, request, SegmentRequestDto.class);
+        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"segment: ", "decoding and json to dto successful");
+        sdkMetrics.recordSegments(SdkOperation.SEGMENT.getOperationName(), segmentRequestDto.getSample());
+        boolean fannedOut = modalityFanOut.isFannedOut(segmentRequestDto.getFlags());
+        segmentRequestDto.setFlags(ModalityFanOut.withoutFlag(segmentRequestDto.getFlags()));
         try {
         	logRequest(segmentRequestDto);
-            response = iBioApi.segment(
+            response = callSdk(SdkOperation.SEGMENT, request, segmentRequestDto.getModalitiesToSegment(), () -> modalityFanOut.segment(
                     segmentRequestDto.getSample(),
                     segmentRequestDto.getModalitiesToSegment(),
-                    segmentRequestDto.getFlags()
-            );
+                    segmentRequestDto.getFlags(),
+                    fannedOut
+            ));
             logResponse(response);
+        } catch (BioSDKException e){
+            throw e;
         } catch (Throwable e){
-            e.printStackTrace();
+            auditLog.failure("segment: ", e);
             logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE,"segment: ", e.toString()+" "+e.getMessage());
             throw new BioSDKException(ErrorMessages.BIOSDK_LIB_EXCEPTION.toString(), ErrorMessages.BIOSDK_LIB_EXCEPTION.getMessage()+": "+e.toString()+" "+e.getMessage());
         }
@@ -169,23 +281,24 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 	@Override
     public Object convertFormat(RequestDto request) {
     	Response response;
-        String decryptedRequest = decode(request.getRequest());
-        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"convertFormat: ", "decoding successful");
-        ConvertFormatRequestDto convertFormatRequestDto = gson.fromJson(decryptedRequest, ConvertFormatRequestDto.class);
-        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"convertFormat: ", "json to dto successful");
+        ConvertFormatRequestDto convertFormatRequestDto = decode(SdkOperation.CONVERT_FORMAT, request, ConvertFormatRequestDto.class);
+        logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE,"convertFormat: ", "decoding and json to dto successful");
+        sdkMetrics.recordSegments(SdkOperation.CONVERT_FORMAT.getOperationName(), convertFormatRequestDto.getSample());
         try {
         	logRequest(convertFormatRequestDto);
-        	response = iBioApi.convertFormatV2(
+        	response = callSdk(SdkOperation.CONVERT_FORMAT, request, convertFormatRequestDto.getModalitiesToConvert(), () -> modalityFanOut.convertFormatV2(
                     convertFormatRequestDto.getSample(),
                     convertFormatRequestDto.getSourceFormat(),
                     convertFormatRequestDto.getTargetFormat(),
                     convertFormatRequestDto.getSourceParams(),
                     convertFormatRequestDto.getTargetParams(),
                     convertFormatRequestDto.getModalitiesToConvert()
-            );
+            ));
         	logResponse(response);
+        } catch (BioSDKException e){
+            throw e;
         } catch (Throwable e){
-            e.printStackTrace();
+            auditLog.failure("convertFormat: ", e);
             logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE,"convertFormat: ", e.toString()+" "+e.getMessage());
             throw new BioSDKException(ErrorMessages.BIOSDK_LIB_EXCEPTION.toString(), ErrorMessages.BIOSDK_LIB_EXCEPTION.getMessage()+": "+e.toString()+" "+e.getMessage());
         }
@@ -194,43 +307,51 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 
 	private void logRequest(ExtractTemplateRequestDto extractTemplateRequestDto) {
 		if(isLogRequestResponse) {
-			logger.debug("REQUEST: " + utils.toString(extractTemplateRequestDto));
+			auditLog.debug("REQUEST: ", extractTemplateRequestDto, utils::toString, Utils.sizeOf(extractTemplateRequestDto.getSample()));
 		}
 	}
     
     private void logRequest(MatchRequestDto matchRequestDto) {
 		if(isLogRequestResponse) {
-			logger.debug("REQUEST: " + utils.toString(matchRequestDto));
+			BiometricRecord[] gallery = matchRequestDto.getGallery();
+			auditLog.debug("REQUEST: ", matchRequestDto, utils::toString,
+					Utils.sizeOf(matchRequestDto.getSample()) + (gallery == null ? 0 : Utils.sizeOf(gallery)));
+		}
+	}
+    
+    private void logRequest(IdentifyRequestDto identifyRequestDto) {
+		if(isLogRequestResponse) {
+			auditLog.debug("REQUEST: ", identifyRequestDto, utils::toString, Utils.sizeOf(identifyRequestDto.getSample()));
 		}
 	}
     
     private void logRequest(InitRequestDto initRequestDto) {
     	if(isLogRequestResponse) {
-			logger.debug("REQUEST: " + utils.toString(initRequestDto));
+			auditLog.debug("REQUEST: ", initRequestDto, utils::toString, 0);
 		}		
 	}
     
     private void logRequest(CheckQualityRequestDto checkQualityRequestDto) {
 		if(isLogRequestResponse) {
-			logger.debug("REQUEST: " + utils.toString(checkQualityRequestDto));
+			auditLog.debug("REQUEST: ", checkQualityRequestDto, utils::toString, Utils.sizeOf(checkQualityRequestDto.getSample()));
 		}
 	}
     
     private void logRequest(SegmentRequestDto segmentRequestDto) {
     	if(isLogRequestResponse) {
-			logger.debug("REQUEST: " + utils.toString(segmentRequestDto));
+			auditLog.debug("REQUEST: ", segmentRequestDto, utils::toString, Utils.sizeOf(segmentRequestDto.getSample()));
 		}		
 	}
     
     private void logRequest(ConvertFormatRequestDto convertFormatRequestDto) {
     	if(isLogRequestResponse) {
-			logger.debug("REQUEST: " + utils.toString(convertFormatRequestDto));
+			auditLog.debug("REQUEST: ", convertFormatRequestDto, utils::toString, Utils.sizeOf(convertFormatRequestDto.getSample()));
 		}			
 	}
     
     private <T> void logObject(T response) {
     	if(isLogRequestResponse) {
-			logger.debug(response.getClass() + ": " + gson.toJson(response));
+			auditLog.debug(response.getClass() + ": ", response, gson::toJson, 0);
     	}
 	}
     
@@ -241,22 +362,65 @@ public class BioSdkServiceProviderImpl_V_1_0 implements BioSdkServiceProvider {
 				BiometricRecord biometricRecord = (BiometricRecord) resp;
     			logBiometricRecord("Response BiometricRecord: ", biometricRecord);
     		} else {
-    			logger.debug("Response: " + gson.toJson(resp));
+    			auditLog.debug("Response: ", resp, gson::toJson, 0);
     		}
     	}
 	}
     
     private void logBiometricRecord(String prefix, BiometricRecord biometricRecord) {
     	if(isLogRequestResponse) {
-			logger.debug(prefix + utils.toString(biometricRecord));
+			auditLog.debug(prefix, biometricRecord, utils::toString, Utils.sizeOf(biometricRecord));
     	}
 	}
 
-    private String decode(String data){
-        try {
-            return Utils.base64Decode(data);
-        } catch (RuntimeException e){
-            e.printStackTrace();
+    /**
+     * Runs the SDK call in the bulkhead of the operation and times it as the SDK phase.
+     */
+    private <T> T callSdk(SdkOperation operation, RequestDto request, List<BiometricType> modalities, Supplier<T> sdkCall) {
+        return bulkheads.call(operation, () -> sdkMetrics.time(operation.getOperationName(), SdkMetrics.PHASE_SDK,
+                request.getVersion(), modalities, sdkCall));
+    }
+
+    /**
+     * Appends the registered records referenced by gallery id to the inline gallery.
+     */
+    private void resolveGallery(MatchRequestDto matchRequestDto) {
+        String[] galleryIds = matchRequestDto.getGalleryIds();
+        if (galleryIds == null || galleryIds.length == 0) {
+            return;
+        }
+        BiometricRecord[] registered = galleryRegistry.resolve(galleryIds);
+        BiometricRecord[] inline = matchRequestDto.getGallery();
+        if (inline == null || inline.length == 0) {
+            matchRequestDto.setGallery(registered);
+        } else {
+            BiometricRecord[] gallery = Arrays.copyOf(inline, inline.length + registered.length);
+            System.arraycopy(registered, 0, gallery, inline.length, registered.length);
+            matchRequestDto.setGallery(gallery);
+        }
+    }
+
+    /**
+     * Binds the inner request into the given type. A payload already decoded by a binary
+     * transport is converted directly; otherwise the base64 encoded JSON is decoded and
+     * bound in a single streaming pass, without holding the decoded bytes or text in memory.
+     */
+    private <T> T decode(SdkOperation operation, RequestDto request, Class<T> type){
+        return sdkMetrics.time(operation.getOperationName(), SdkMetrics.PHASE_DECODE, request.getVersion(), null,
+                () -> decode(request, type));
+    }
+
+    private <T> T decode(RequestDto request, Class<T> type){
+        Object payload = request.getPayload();
+        if (payload != null) {
+            return type.isInstance(payload) ? type.cast(payload) : cborCodec.convert(payload, type);
+        }
+        try (JsonReader jsonReader = new JsonReader(Utils.base64DecodeReader(request.getRequest()))) {
+            T value = gson.fromJson(jsonReader, type);
+            Utils.requireEndOfDocument(jsonReader);
+            return value;
+        } catch (IOException | RuntimeException e){
+            auditLog.failure(ErrorMessages.INVALID_REQUEST_BODY.toString(), e);
             logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE,ErrorMessages.INVALID_REQUEST_BODY.toString(), e.toString()+" "+e.getMessage());
             throw new BioSDKException(ErrorMessages.INVALID_REQUEST_BODY.toString(), ErrorMessages.INVALID_REQUEST_BODY.getMessage()+": "+e.toString()+" "+e.getMessage());
         }
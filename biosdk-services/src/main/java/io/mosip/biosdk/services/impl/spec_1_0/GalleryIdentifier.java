@@ -0,0 +1,228 @@
+package io.mosip.biosdk.services.impl.spec_1_0;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.biosdk.services.gallery.GalleryIndex;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.IdentifyRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.response.IdentifyCandidateDto;
+import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+
+/**
+ * Identifies a sample among the indexed gallery records. Every partition of every
+ * requested modality is matched concurrently; the partition results are fused per
+ * gallery id by summing the modality scores, and the K best fused scores are kept.
+ * Partitions only cut their own results to K when a single modality is matched, as a
+ * candidate outside the K best of one modality can still be among the best fused ones.
+ *
+ * The score of a decision is read from the "score" analytics entry of the modality
+ * decision, then of the match decision; without one a match counts 1 and a non match 0.
+ */
+@Component
+public class GalleryIdentifier {
+
+    public static final String SCORE_KEY = "score";
+
+    @Autowired
+    private IBioApiV2 iBioApi;
+
+    @Autowired(required = false)
+    private GalleryIndex galleryIndex;
+
+    @Autowired
+    @Qualifier("galleryShardExecutor")
+    private ExecutorService galleryShardExecutor;
+
+    @Value("${mosip.biosdk.identify.default-top-k:10}")
+    private int defaultTopK;
+
+    @Value("${mosip.biosdk.identify.max-top-k:100}")
+    private int maxTopK;
+
+    public Response<IdentifyCandidateDto[]> identify(IdentifyRequestDto request) {
+        if (galleryIndex == null) {
+            throw new BioSDKException(ErrorMessages.GALLERY_DISABLED.toString(),
+                    ErrorMessages.GALLERY_DISABLED.getMessage() + ": set mosip.biosdk.identify.enabled=true");
+        }
+        int topK = Math.min(maxTopK, request.getTopK() == null || request.getTopK() <= 0 ? defaultTopK : request.getTopK());
+        List<BiometricType> modalities = request.getModalitiesToMatch() == null || request.getModalitiesToMatch().isEmpty()
+                ? new ArrayList<>(galleryIndex.modalities()) : request.getModalitiesToMatch();
+
+        int partitionTopK = modalities.size() == 1 ? topK : 0;
+        List<CompletableFuture<PartitionResult>> futures = new ArrayList<>();
+        for (BiometricType modality : modalities) {
+            for (GalleryIndex.Partition partition : galleryIndex.partitions(modality)) {
+                GalleryIndex.Snapshot snapshot = partition.snapshot();
+                if (snapshot.getGalleryIds().length > 0) {
+                    futures.add(CompletableFuture.supplyAsync(
+                            () -> matchPartition(request, modality, snapshot, partitionTopK), galleryShardExecutor));
+                }
+            }
+        }
+
+        Map<String, IdentifyCandidateDto> fused = new HashMap<>();
+        try {
+            for (CompletableFuture<PartitionResult> future : futures) {
+                PartitionResult result = Utils.join(future);
+                if (result.failed) {
+                    return failure(result.failure);
+                }
+                for (Score score : result.scores) {
+                    IdentifyCandidateDto candidate = fused.computeIfAbsent(score.galleryId, id -> {
+                        IdentifyCandidateDto newCandidate = new IdentifyCandidateDto();
+                        newCandidate.setGalleryId(id);
+                        return newCandidate;
+                    });
+                    candidate.getScores().put(result.modality, score.value);
+                    candidate.setScore(candidate.getScore() + score.value);
+                }
+            }
+        } finally {
+            // after a failed partition, partitions still waiting for a thread are not matched
+            futures.forEach(future -> future.cancel(false));
+        }
+
+        PriorityQueue<IdentifyCandidateDto> best = new PriorityQueue<>(topK + 1,
+                Comparator.comparingDouble(IdentifyCandidateDto::getScore));
+        for (IdentifyCandidateDto candidate : fused.values()) {
+            offer(best, candidate, topK);
+        }
+        List<IdentifyCandidateDto> candidates = new ArrayList<>(best);
+        candidates.sort(Comparator.comparingDouble(IdentifyCandidateDto::getScore).reversed());
+
+        Response<IdentifyCandidateDto[]> response = new Response<>();
+        response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
+        response.setStatusMessage(ResponseStatus.SUCCESS.getStatusMessage());
+        response.setResponse(candidates.toArray(new IdentifyCandidateDto[0]));
+        return response;
+    }
+
+    /**
+     * @param topK scores the partition keeps, 0 for all
+     */
+    private PartitionResult matchPartition(IdentifyRequestDto request, BiometricType modality,
+            GalleryIndex.Snapshot snapshot, int topK) {
+        Response<MatchDecision[]> response = iBioApi.match(request.getSample(), snapshot.getRecords(),
+                Collections.singletonList(modality), request.getFlags());
+        if (response == null || response.getStatusCode() == null
+                || response.getStatusCode() != ResponseStatus.SUCCESS.getStatusCode()) {
+            return new PartitionResult(modality, true, response, Collections.emptyList());
+        }
+        List<Score> scores = new ArrayList<>();
+        if (response.getResponse() != null) {
+            String[] galleryIds = snapshot.getGalleryIds();
+            for (MatchDecision decision : response.getResponse()) {
+                Double value = scoreOf(decision, modality);
+                if (value != null && decision.getGalleryIndex() >= 0 && decision.getGalleryIndex() < galleryIds.length) {
+                    scores.add(new Score(galleryIds[decision.getGalleryIndex()], value));
+                }
+            }
+        }
+        if (topK > 0 && scores.size() > topK) {
+            PriorityQueue<Score> best = new PriorityQueue<>(topK + 1, Comparator.comparingDouble(s -> s.value));
+            for (Score score : scores) {
+                offer(best, score, topK);
+            }
+            scores = new ArrayList<>(best);
+        }
+        return new PartitionResult(modality, false, null, scores);
+    }
+
+    /** The status of the SDK response of a failed partition */
+    private static Response<IdentifyCandidateDto[]> failure(Response<MatchDecision[]> sdkResponse) {
+        Response<IdentifyCandidateDto[]> response = new Response<>();
+        if (sdkResponse == null || sdkResponse.getStatusCode() == null) {
+            response.setStatusCode(ResponseStatus.UNKNOWN_ERROR.getStatusCode());
+            response.setStatusMessage(ResponseStatus.UNKNOWN_ERROR.getStatusMessage());
+        } else {
+            response.setStatusCode(sdkResponse.getStatusCode());
+            response.setStatusMessage(sdkResponse.getStatusMessage());
+        }
+        return response;
+    }
+
+    /**
+     * @return the score of the decision, null if the SDK failed to match the record
+     */
+    private static Double scoreOf(MatchDecision matchDecision, BiometricType modality) {
+        Decision decision = matchDecision.getDecisions() == null ? null : matchDecision.getDecisions().get(modality);
+        if (decision == null || decision.getMatch() == Match.ERROR) {
+            return null;
+        }
+        Double score = parseScore(decision.getAnalyticsInfo());
+        if (score == null) {
+            score = parseScore(matchDecision.getAnalyticsInfo());
+        }
+        if (score == null) {
+            score = decision.getMatch() == Match.MATCHED ? 1d : 0d;
+        }
+        return score;
+    }
+
+    private static Double parseScore(Map<String, String> analyticsInfo) {
+        String score = analyticsInfo == null ? null : analyticsInfo.get(SCORE_KEY);
+        if (score == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(score);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** Keeps the K highest elements in a min heap of at most K elements */
+    private static <T> void offer(PriorityQueue<T> heap, T element, int topK) {
+        heap.offer(element);
+        if (heap.size() > topK) {
+            heap.poll();
+        }
+    }
+
+    private static final class Score {
+        private final String galleryId;
+        private final double value;
+
+        private Score(String galleryId, double value) {
+            this.galleryId = galleryId;
+            this.value = value;
+        }
+    }
+
+    private static final class PartitionResult {
+        private final BiometricType modality;
+        private final boolean failed;
+        /** The SDK response of a failed partition */
+        private final Response<MatchDecision[]> failure;
+        private final List<Score> scores;
+
+        private PartitionResult(BiometricType modality, boolean failed, Response<MatchDecision[]> failure,
+                List<Score> scores) {
+            this.modality = modality;
+            this.failed = failed;
+            this.failure = failure;
+            this.scores = scores;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.mosip.biosdk.services.impl.spec_1_0;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
+import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+
+/**
+ * Matches a sample against its gallery, optionally splitting large galleries into
+ * chunks that are matched concurrently. Decisions are merged back in gallery order
+ * with their gallery index relative to the full gallery.
+ */
+@Component
+public class GalleryMatcher {
+
+    /** Request flag forcing sharding on ("true") or off ("false") regardless of gallery size */
+    public static final String PARALLEL_GALLERY_FLAG = "parallelGallery";
+
+    @Autowired
+    private IBioApiV2 iBioApi;
+
+    @Autowired
+    @Qualifier("galleryShardExecutor")
+    private ExecutorService galleryShardExecutor;
+
+    /** Gallery size from which matching is sharded, 0 to shard only on request */
+    @Value("${mosip.biosdk.match.gallery-sharding.threshold:0}")
+    private int shardingThreshold;
+
+    /** Records per chunk, 0 to spread the gallery evenly over the shard threads */
+    @Value("${mosip.biosdk.match.gallery-sharding.chunk-size:0}")
+    private int chunkSize;
+
+    @Value("${mosip.biosdk.match.gallery-sharding.threads:0}")
+    private int shardThreads;
+
+    public Response<MatchDecision[]> match(MatchRequestDto matchRequestDto) {
+        BiometricRecord[] gallery = matchRequestDto.getGallery();
+        int size = chunkSize(gallery);
+        if (!isSharded(matchRequestDto) || size >= gallery.length) {
+            return iBioApi.match(matchRequestDto.getSample(), gallery,
+                    matchRequestDto.getModalitiesToMatch(), matchRequestDto.getFlags());
+        }
+
+        List<CompletableFuture<Response<MatchDecision[]>>> chunks = new ArrayList<>();
+        for (int start = 0; start < gallery.length; start += size) {
+            BiometricRecord[] chunk = Arrays.copyOfRange(gallery, start, Math.min(start + size, gallery.length));
+            chunks.add(CompletableFuture.supplyAsync(() -> iBioApi.match(matchRequestDto.getSample(), chunk,
+                    matchRequestDto.getModalitiesToMatch(), matchRequestDto.getFlags()), galleryShardExecutor));
+        }
+
+        List<MatchDecision> decisions = new ArrayList<>(gallery.length);
+        int offset = 0;
+        for (CompletableFuture<Response<MatchDecision[]>> future : chunks) {
+            Response<MatchDecision[]> chunkResponse = Utils.join(future);
+            if (chunkResponse == null || chunkResponse.getStatusCode() == null
+                    || chunkResponse.getStatusCode() != ResponseStatus.SUCCESS.getStatusCode()) {
+                return chunkResponse;
+            }
+            if (chunkResponse.getResponse() != null) {
+                for (MatchDecision decision : chunkResponse.getResponse()) {
+                    decision.setGalleryIndex(offset + decision.getGalleryIndex());
+                    decisions.add(decision);
+                }
+            }
+            offset += size;
+        }
+
+        Response<MatchDecision[]> response = new Response<>();
+        response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
+        response.setStatusMessage(ResponseStatus.SUCCESS.getStatusMessage());
+        response.setResponse(decisions.toArray(new MatchDecision[0]));
+        return response;
+    }
+
+    private boolean isSharded(MatchRequestDto matchRequestDto) {
+        BiometricRecord[] gallery = matchRequestDto.getGallery();
+        if (gallery == null || gallery.length < 2) {
+            return false;
+        }
+        Map<String, String> flags = matchRequestDto.getFlags();
+        String flag = flags == null ? null : flags.get(PARALLEL_GALLERY_FLAG);
+        if (flag != null) {
+            return Boolean.parseBoolean(flag);
+        }
+        return shardingThreshold > 0 && gallery.length >= shardingThreshold;
+    }
+
+    private int chunkSize(BiometricRecord[] gallery) {
+        if (chunkSize > 0) {
+            return chunkSize;
+        }
+        int threads = shardThreads > 0 ? shardThreads : Runtime.getRuntime().availableProcessors();
+        int length = gallery == null ? 0 : gallery.length;
+        return Math.max(1, (length + threads - 1) / threads);
+    }
+}
@@ -0,0 +1,164 @@
+package io.mosip.biosdk.services.impl.spec_1_0;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.biosdk.services.sdk.ModalityPartitioner;
+import io.mosip.biosdk.services.sdk.ModalityPartitioner.Part;
+import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+
+/**
+ * Runs the SDK on the modalities of a sample concurrently, or on each of its segments,
+ * and merges the results back in segment order. Only for SDKs that can be called
+ * concurrently, either thread-safe ones or through the SDK instance pool.
+ */
+@Component
+public class ModalityFanOut {
+
+    /** Request flag turning fan-out off ("false") for one request when it is enabled */
+    public static final String PARALLEL_MODALITIES_FLAG = "parallelModalities";
+
+    /** What a sample is split into */
+    public enum Granularity {
+        /** One part per modality, e.g. all fingers in one SDK call */
+        MODALITY,
+        /** One part per segment, for SDKs that process segments independently */
+        SEGMENT
+    }
+
+    @Autowired
+    private IBioApiV2 iBioApi;
+
+    @Autowired
+    @Qualifier("fanOutExecutor")
+    private ExecutorService fanOutExecutor;
+
+    @Value("${mosip.biosdk.fan-out.enabled:false}")
+    private boolean enabled;
+
+    /** Granularity of extract-template, segment and convert-format; quality is checked per modality */
+    @Value("${mosip.biosdk.fan-out.granularity:MODALITY}")
+    private Granularity granularity;
+
+    /**
+     * Whether a request with the flags is fanned out. The flag can only turn fan-out off,
+     * so that clients cannot override an operator who left it disabled.
+     */
+    public boolean isFannedOut(Map<String, String> flags) {
+        return enabled && (flags == null || !"false".equalsIgnoreCase(flags.get(PARALLEL_MODALITIES_FLAG)));
+    }
+
+    /**
+     * @return the flags without {@link #PARALLEL_MODALITIES_FLAG}, which is meant for this
+     *         service, so that it neither reaches the SDK nor splits cache keys
+     */
+    public static Map<String, String> withoutFlag(Map<String, String> flags) {
+        if (flags == null || !flags.containsKey(PARALLEL_MODALITIES_FLAG)) {
+            return flags;
+        }
+        Map<String, String> sdkFlags = new HashMap<>(flags);
+        sdkFlags.remove(PARALLEL_MODALITIES_FLAG);
+        return sdkFlags;
+    }
+
+    public Response<QualityCheck> checkQuality(BiometricRecord sample, List<BiometricType> modalitiesToCheck,
+            Map<String, String> flags, boolean fannedOut) {
+        List<Part<BiometricType>> parts = fannedOut
+                ? ModalityPartitioner.split(sample, Function.identity())
+                : Collections.emptyList();
+        if (parts.size() < 2) {
+            return iBioApi.checkQuality(sample, modalitiesToCheck, flags);
+        }
+        List<CompletableFuture<Response<QualityCheck>>> futures = new ArrayList<>();
+        for (Part<BiometricType> part : parts) {
+            List<BiometricType> modalities = ModalityPartitioner.requestedOf(part, modalitiesToCheck,
+                    Function.identity());
+            if (modalities == null || !modalities.isEmpty()) {
+                futures.add(CompletableFuture.supplyAsync(() -> iBioApi.checkQuality(part.getRecord(), modalities, flags),
+                        fanOutExecutor));
+            }
+        }
+        return ModalityPartitioner.mergeQuality(joinAll(futures));
+    }
+
+    public Response<BiometricRecord> extractTemplate(BiometricRecord sample, List<BiometricType> modalitiesToExtract,
+            Map<String, String> flags, boolean fannedOut) {
+        return perPart(sample, modalitiesToExtract, fannedOut, (record, modalities) ->
+                iBioApi.extractTemplate(record, modalities, flags));
+    }
+
+    public Response<BiometricRecord> segment(BiometricRecord sample, List<BiometricType> modalitiesToSegment,
+            Map<String, String> flags, boolean fannedOut) {
+        return perPart(sample, modalitiesToSegment, fannedOut, (record, modalities) ->
+                iBioApi.segment(record, modalities, flags));
+    }
+
+    public Response<BiometricRecord> convertFormatV2(BiometricRecord sample, String sourceFormat, String targetFormat,
+            Map<String, String> sourceParams, Map<String, String> targetParams, List<BiometricType> modalitiesToConvert) {
+        return perPart(sample, modalitiesToConvert, enabled, (record, modalities) -> iBioApi.convertFormatV2(
+                record, sourceFormat, targetFormat, sourceParams, targetParams, modalities));
+    }
+
+    private Response<BiometricRecord> perPart(BiometricRecord sample, List<BiometricType> requested,
+            boolean fannedOut, BiFunction<BiometricRecord, List<BiometricType>, Response<BiometricRecord>> call) {
+        if (!fannedOut) {
+            return call.apply(sample, requested);
+        }
+        return granularity == Granularity.SEGMENT
+                ? perPart(sample, ModalityPartitioner.splitSegments(sample), requested, call)
+                : perPart(sample, ModalityPartitioner.split(sample, Function.identity()), requested, call);
+    }
+
+    /**
+     * Parts without requested modalities are passed through unchanged, as the SDK would
+     * have returned their segments, so that the merged record keeps every segment.
+     */
+    private <K> Response<BiometricRecord> perPart(BiometricRecord sample, List<Part<K>> parts,
+            List<BiometricType> requested, BiFunction<BiometricRecord, List<BiometricType>, Response<BiometricRecord>> call) {
+        if (parts.size() < 2) {
+            return call.apply(sample, requested);
+        }
+        List<CompletableFuture<Response<BiometricRecord>>> futures = new ArrayList<>();
+        for (Part<K> part : parts) {
+            List<BiometricType> modalities = ModalityPartitioner.requestedOf(part, requested);
+            futures.add(modalities != null && modalities.isEmpty()
+                    ? CompletableFuture.completedFuture(unchanged(part.getRecord()))
+                    : CompletableFuture.supplyAsync(() -> call.apply(part.getRecord(), modalities), fanOutExecutor));
+        }
+        return ModalityPartitioner.mergeRecords(sample, parts, joinAll(futures));
+    }
+
+    private static Response<BiometricRecord> unchanged(BiometricRecord record) {
+        Response<BiometricRecord> response = new Response<>();
+        response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
+        response.setStatusMessage(ResponseStatus.SUCCESS.getStatusMessage());
+        response.setResponse(record);
+        return response;
+    }
+
+    private static <T> List<T> joinAll(List<CompletableFuture<T>> futures) {
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            results.add(Utils.join(future));
+        }
+        return results;
+    }
+}
@@ -17,6 +17,8 @@ import java.util.Map;
 public class MatchRequestDto {
     private BiometricRecord sample;
     private BiometricRecord[] gallery;
+    /** Ids of registered gallery records, matched after the inline gallery */
+    private String[] galleryIds;
     private List<BiometricType> modalitiesToMatch;
     private Map<String, String> flags;
 }
@@ -0,0 +1,21 @@
+package io.mosip.biosdk.services.impl.spec_1_0.dto.response;
+
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class IdentifyCandidateDto {
+    private String galleryId;
+    /** Sum of the modality scores */
+    private double score;
+    private Map<BiometricType, Double> scores = new EnumMap<>(BiometricType.class);
+}
@@ -0,0 +1,229 @@
+package io.mosip.biosdk.services.json;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Streaming adapter for a bean whose properties are read and written through its getters
+ * and setters, and whose property names are matched with a single map lookup.
+ *
+ * Fields of the bean that are not declared as properties are still handled, through
+ * reflection like Gson's own adapter, so that the JSON of a bean never loses a field
+ * when a new library version adds one.
+ */
+final class BeanAdapter<T> extends TypeAdapter<T> {
+
+    private final Supplier<T> constructor;
+    private final Property<T>[] properties;
+    private final Map<String, Property<T>> propertiesByName;
+
+    private BeanAdapter(Supplier<T> constructor, List<Property<T>> properties) {
+        this.constructor = constructor;
+        @SuppressWarnings("unchecked")
+        Property<T>[] array = properties.toArray(new Property[0]);
+        this.properties = array;
+        this.propertiesByName = new HashMap<>(properties.size() * 2);
+        for (Property<T> property : properties) {
+            propertiesByName.put(property.name, property);
+        }
+    }
+
+    static <T> Builder<T> builder(Gson gson, Class<T> type, Supplier<T> constructor) {
+        return new Builder<>(gson, type, constructor);
+    }
+
+    @Override
+    public void write(JsonWriter out, T value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        for (Property<T> property : properties) {
+            out.name(property.name);
+            property.write(out, value);
+        }
+        out.endObject();
+    }
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        T value = constructor.get();
+        in.beginObject();
+        while (in.hasNext()) {
+            Property<T> property = propertiesByName.get(in.nextName());
+            if (property == null) {
+                in.skipValue();
+            } else {
+                property.read(in, value);
+            }
+        }
+        in.endObject();
+        return value;
+    }
+
+    static final class Builder<T> {
+        private final Gson gson;
+        private final Class<T> type;
+        private final Supplier<T> constructor;
+        private final List<Property<T>> properties = new ArrayList<>();
+
+        private Builder(Gson gson, Class<T> type, Supplier<T> constructor) {
+            this.gson = gson;
+            this.type = type;
+            this.constructor = constructor;
+        }
+
+        <V> Builder<T> property(String name, Class<V> valueType, Function<T, V> getter, BiConsumer<T, V> setter) {
+            return property(name, gson.getAdapter(valueType), getter, setter);
+        }
+
+        <V> Builder<T> property(String name, TypeToken<V> valueType, Function<T, V> getter, BiConsumer<T, V> setter) {
+            return property(name, gson.getAdapter(valueType), getter, setter);
+        }
+
+        <V> Builder<T> property(String name, TypeAdapter<V> adapter, Function<T, V> getter, BiConsumer<T, V> setter) {
+            properties.add(new AccessorProperty<>(name, adapter, getter, setter));
+            return this;
+        }
+
+        /**
+         * Adds the remaining instance fields of the bean and its super classes as
+         * reflective properties. Properties are written in the order Gson's own adapter
+         * writes the fields, declaration order from the bean up to its super classes, so
+         * the JSON does not change; declared properties without a field come last.
+         */
+        BeanAdapter<T> build() {
+            Map<String, Property<T>> declared = new LinkedHashMap<>();
+            for (Property<T> property : properties) {
+                declared.put(property.name, property);
+            }
+            List<Property<T>> ordered = new ArrayList<>();
+            Set<String> names = new HashSet<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()
+                            || !names.add(field.getName())) {
+                        continue;
+                    }
+                    Property<T> property = declared.remove(field.getName());
+                    if (property == null) {
+                        field.setAccessible(true);
+                        property = new FieldProperty<>(field, gson.getAdapter(TypeToken.get(field.getGenericType())));
+                    }
+                    ordered.add(property);
+                }
+            }
+            ordered.addAll(declared.values());
+            return new BeanAdapter<>(constructor, ordered);
+        }
+    }
+
+    private abstract static class Property<T> {
+        final String name;
+
+        Property(String name) {
+            this.name = name;
+        }
+
+        abstract void write(JsonWriter out, T bean) throws IOException;
+
+        abstract void read(JsonReader in, T bean) throws IOException;
+    }
+
+    private static final class AccessorProperty<T, V> extends Property<T> {
+        private final TypeAdapter<V> adapter;
+        private final Function<T, V> getter;
+        private final BiConsumer<T, V> setter;
+
+        AccessorProperty(String name, TypeAdapter<V> adapter, Function<T, V> getter, BiConsumer<T, V> setter) {
+            super(name);
+            this.adapter = adapter;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        void write(JsonWriter out, T bean) throws IOException {
+            V value = getter.apply(bean);
+            if (value == null) {
+                out.nullValue();
+            } else {
+                adapter.write(out, value);
+            }
+        }
+
+        @Override
+        void read(JsonReader in, T bean) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                setter.accept(bean, null);
+            } else {
+                setter.accept(bean, adapter.read(in));
+            }
+        }
+    }
+
+    private static final class FieldProperty<T> extends Property<T> {
+        private final Field field;
+        @SuppressWarnings("rawtypes")
+        private final TypeAdapter adapter;
+
+        FieldProperty(Field field, TypeAdapter<?> adapter) {
+            super(field.getName());
+            this.field = field;
+            this.adapter = adapter;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void write(JsonWriter out, T bean) throws IOException {
+            try {
+                Object value = field.get(bean);
+                if (value == null) {
+                    out.nullValue();
+                } else {
+                    adapter.write(out, value);
+                }
+            } catch (IllegalAccessException e) {
+                throw new JsonIOException(e);
+            }
+        }
+
+        @Override
+        void read(JsonReader in, T bean) throws IOException {
+            Object value = adapter.read(in);
+            if (value != null || !field.getType().isPrimitive()) {
+                try {
+                    field.set(bean, value);
+                } catch (IllegalAccessException e) {
+                    throw new JsonIOException(e);
+                }
+            }
+        }
+    }
+}
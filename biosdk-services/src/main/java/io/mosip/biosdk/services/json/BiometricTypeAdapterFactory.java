@@ -0,0 +1,153 @@
+package io.mosip.biosdk.services.json;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.CheckQualityRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ConvertFormatRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ExtractTemplateRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.IdentifyRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.InitRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.SegmentRequestDto;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.ProcessedLevelType;
+import io.mosip.kernel.biometrics.constant.PurposeType;
+import io.mosip.kernel.biometrics.entities.BDBInfo;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BIRInfo;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.entities.RegistryIDType;
+
+/**
+ * Streaming adapters for the kernel biometrics entities, the spec 1.0 request DTOs,
+ * enums and {@link LocalDateTime}. The JSON is the same as Gson's reflective binding.
+ *
+ * Entity properties that are not listed here, e.g. ones that differ between kernel
+ * versions, are bound by the reflective fallback of {@link BeanAdapter}.
+ */
+public final class BiometricTypeAdapterFactory implements TypeAdapterFactory {
+
+    private static final TypeToken<List<BiometricType>> BIOMETRIC_TYPES = new TypeToken<List<BiometricType>>() {};
+    private static final TypeToken<List<String>> STRINGS = new TypeToken<List<String>>() {};
+    private static final TypeToken<List<BIR>> BIRS = new TypeToken<List<BIR>>() {};
+    private static final TypeToken<Map<String, String>> PARAMS = new TypeToken<Map<String, String>>() {};
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+        Class<? super T> type = typeToken.getRawType();
+        if (Enum.class.isAssignableFrom(type) && type != Enum.class) {
+            // constants with a body are anonymous subclasses of the enum
+            return new EnumAdapter(type.isEnum() ? type : type.getSuperclass());
+        }
+        if (type == LocalDateTime.class) {
+            return (TypeAdapter<T>) new LocalDateTimeAdapter();
+        }
+        TypeAdapter<?> adapter = entityAdapter(gson, type);
+        if (adapter == null) {
+            adapter = requestAdapter(gson, type);
+        }
+        return (TypeAdapter<T>) adapter;
+    }
+
+    private static TypeAdapter<?> entityAdapter(Gson gson, Class<?> type) {
+        if (type == BiometricRecord.class) {
+            return BeanAdapter.builder(gson, BiometricRecord.class, BiometricRecord::new)
+                    .property("birInfo", BIRInfo.class, BiometricRecord::getBirInfo, BiometricRecord::setBirInfo)
+                    .property("segments", BIRS, BiometricRecord::getSegments, BiometricRecord::setSegments)
+                    .build();
+        }
+        if (type == BIR.class) {
+            return BeanAdapter.builder(gson, BIR.class, BIR::new)
+                    .property("birInfo", BIRInfo.class, BIR::getBirInfo, BIR::setBirInfo)
+                    .property("bdbInfo", BDBInfo.class, BIR::getBdbInfo, BIR::setBdbInfo)
+                    .property("bdb", byte[].class, BIR::getBdb, BIR::setBdb)
+                    .property("sb", byte[].class, BIR::getSb, BIR::setSb)
+                    .build();
+        }
+        if (type == BDBInfo.class) {
+            return BeanAdapter.builder(gson, BDBInfo.class, BDBInfo::new)
+                    .property("challengeResponse", byte[].class, BDBInfo::getChallengeResponse, BDBInfo::setChallengeResponse)
+                    .property("format", RegistryIDType.class, BDBInfo::getFormat, BDBInfo::setFormat)
+                    .property("encryption", Boolean.class, BDBInfo::getEncryption, BDBInfo::setEncryption)
+                    .property("creationDate", LocalDateTime.class, BDBInfo::getCreationDate, BDBInfo::setCreationDate)
+                    .property("type", BIOMETRIC_TYPES, BDBInfo::getType, BDBInfo::setType)
+                    .property("subtype", STRINGS, BDBInfo::getSubtype, BDBInfo::setSubtype)
+                    .property("level", ProcessedLevelType.class, BDBInfo::getLevel, BDBInfo::setLevel)
+                    .property("purpose", PurposeType.class, BDBInfo::getPurpose, BDBInfo::setPurpose)
+                    .build();
+        }
+        if (type == BIRInfo.class) {
+            return BeanAdapter.builder(gson, BIRInfo.class, BIRInfo::new)
+                    .property("payload", byte[].class, BIRInfo::getPayload, BIRInfo::setPayload)
+                    .property("integrity", Boolean.class, BIRInfo::getIntegrity, BIRInfo::setIntegrity)
+                    .property("creationDate", LocalDateTime.class, BIRInfo::getCreationDate, BIRInfo::setCreationDate)
+                    .build();
+        }
+        return null;
+    }
+
+    private static TypeAdapter<?> requestAdapter(Gson gson, Class<?> type) {
+        if (type == InitRequestDto.class) {
+            return BeanAdapter.builder(gson, InitRequestDto.class, InitRequestDto::new)
+                    .property("initParams", PARAMS, InitRequestDto::getInitParams, InitRequestDto::setInitParams)
+                    .build();
+        }
+        if (type == CheckQualityRequestDto.class) {
+            return BeanAdapter.builder(gson, CheckQualityRequestDto.class, CheckQualityRequestDto::new)
+                    .property("sample", BiometricRecord.class, CheckQualityRequestDto::getSample, CheckQualityRequestDto::setSample)
+                    .property("modalitiesToCheck", BIOMETRIC_TYPES, CheckQualityRequestDto::getModalitiesToCheck, CheckQualityRequestDto::setModalitiesToCheck)
+                    .property("flags", PARAMS, CheckQualityRequestDto::getFlags, CheckQualityRequestDto::setFlags)
+                    .build();
+        }
+        if (type == MatchRequestDto.class) {
+            return BeanAdapter.builder(gson, MatchRequestDto.class, MatchRequestDto::new)
+                    .property("sample", BiometricRecord.class, MatchRequestDto::getSample, MatchRequestDto::setSample)
+                    .property("gallery", BiometricRecord[].class, MatchRequestDto::getGallery, MatchRequestDto::setGallery)
+                    .property("galleryIds", String[].class, MatchRequestDto::getGalleryIds, MatchRequestDto::setGalleryIds)
+                    .property("modalitiesToMatch", BIOMETRIC_TYPES, MatchRequestDto::getModalitiesToMatch, MatchRequestDto::setModalitiesToMatch)
+                    .property("flags", PARAMS, MatchRequestDto::getFlags, MatchRequestDto::setFlags)
+                    .build();
+        }
+        if (type == IdentifyRequestDto.class) {
+            return BeanAdapter.builder(gson, IdentifyRequestDto.class, IdentifyRequestDto::new)
+                    .property("sample", BiometricRecord.class, IdentifyRequestDto::getSample, IdentifyRequestDto::setSample)
+                    .property("modalitiesToMatch", BIOMETRIC_TYPES, IdentifyRequestDto::getModalitiesToMatch, IdentifyRequestDto::setModalitiesToMatch)
+                    .property("topK", Integer.class, IdentifyRequestDto::getTopK, IdentifyRequestDto::setTopK)
+                    .property("flags", PARAMS, IdentifyRequestDto::getFlags, IdentifyRequestDto::setFlags)
+                    .build();
+        }
+        if (type == ExtractTemplateRequestDto.class) {
+            return BeanAdapter.builder(gson, ExtractTemplateRequestDto.class, ExtractTemplateRequestDto::new)
+                    .property("sample", BiometricRecord.class, ExtractTemplateRequestDto::getSample, ExtractTemplateRequestDto::setSample)
+                    .property("modalitiesToExtract", BIOMETRIC_TYPES, ExtractTemplateRequestDto::getModalitiesToExtract, ExtractTemplateRequestDto::setModalitiesToExtract)
+                    .property("flags", PARAMS, ExtractTemplateRequestDto::getFlags, ExtractTemplateRequestDto::setFlags)
+                    .build();
+        }
+        if (type == SegmentRequestDto.class) {
+            return BeanAdapter.builder(gson, SegmentRequestDto.class, SegmentRequestDto::new)
+                    .property("sample", BiometricRecord.class, SegmentRequestDto::getSample, SegmentRequestDto::setSample)
+                    .property("modalitiesToSegment", BIOMETRIC_TYPES, SegmentRequestDto::getModalitiesToSegment, SegmentRequestDto::setModalitiesToSegment)
+                    .property("flags", PARAMS, SegmentRequestDto::getFlags, SegmentRequestDto::setFlags)
+                    .build();
+        }
+        if (type == ConvertFormatRequestDto.class) {
+            return BeanAdapter.builder(gson, ConvertFormatRequestDto.class, ConvertFormatRequestDto::new)
+                    .property("sample", BiometricRecord.class, ConvertFormatRequestDto::getSample, ConvertFormatRequestDto::setSample)
+                    .property("sourceFormat", String.class, ConvertFormatRequestDto::getSourceFormat, ConvertFormatRequestDto::setSourceFormat)
+                    .property("targetFormat", String.class, ConvertFormatRequestDto::getTargetFormat, ConvertFormatRequestDto::setTargetFormat)
+                    .property("sourceParams", PARAMS, ConvertFormatRequestDto::getSourceParams, ConvertFormatRequestDto::setSourceParams)
+                    .property("targetParams", PARAMS, ConvertFormatRequestDto::getTargetParams, ConvertFormatRequestDto::setTargetParams)
+                    .property("modalitiesToConvert", BIOMETRIC_TYPES, ConvertFormatRequestDto::getModalitiesToConvert, ConvertFormatRequestDto::setModalitiesToConvert)
+                    .build();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,60 @@
+package io.mosip.biosdk.services.json;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Enum adapter with the names resolved once per type: writing indexes an array by
+ * ordinal and reading is a single map lookup. Names follow Gson's rules, the constant
+ * name unless overridden with {@link SerializedName}; unknown names read as null.
+ */
+final class EnumAdapter<E extends Enum<E>> extends TypeAdapter<E> {
+
+    private final String[] names;
+    private final Map<String, E> constants = new HashMap<>();
+
+    EnumAdapter(Class<E> type) {
+        E[] values = type.getEnumConstants();
+        names = new String[values.length];
+        for (E constant : values) {
+            String name = constant.name();
+            try {
+                Field field = type.getField(name);
+                SerializedName serializedName = field.getAnnotation(SerializedName.class);
+                if (serializedName != null) {
+                    name = serializedName.value();
+                    for (String alternate : serializedName.alternate()) {
+                        constants.put(alternate, constant);
+                    }
+                }
+            } catch (NoSuchFieldException e) {
+                throw new JsonIOException(e);
+            }
+            names[constant.ordinal()] = name;
+            constants.put(name, constant);
+        }
+    }
+
+    @Override
+    public void write(JsonWriter out, E value) throws IOException {
+        out.value(value == null ? null : names[value.ordinal()]);
+    }
+
+    @Override
+    public E read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return constants.get(in.nextString());
+    }
+}
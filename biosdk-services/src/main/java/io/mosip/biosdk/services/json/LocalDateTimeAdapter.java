@@ -0,0 +1,102 @@
+package io.mosip.biosdk.services.json;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes {@link LocalDateTime} in the nested form Gson produces by reflection,
+ * {"date":{"year","month","day"},"time":{"hour","minute","second","nano"}}, which is what
+ * existing clients exchange, without reflecting into java.time. Reading also accepts an
+ * ISO-8601 string.
+ */
+final class LocalDateTimeAdapter extends TypeAdapter<LocalDateTime> {
+
+    @Override
+    public void write(JsonWriter out, LocalDateTime value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("date").beginObject()
+                .name("year").value(value.getYear())
+                .name("month").value(value.getMonthValue())
+                .name("day").value(value.getDayOfMonth())
+                .endObject();
+        out.name("time").beginObject()
+                .name("hour").value(value.getHour())
+                .name("minute").value(value.getMinute())
+                .name("second").value(value.getSecond())
+                .name("nano").value(value.getNano())
+                .endObject();
+        out.endObject();
+    }
+
+    @Override
+    public LocalDateTime read(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.STRING) {
+            return LocalDateTime.parse(in.nextString());
+        }
+        int year = 0;
+        int month = 1;
+        int day = 1;
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int nano = 0;
+        in.beginObject();
+        while (in.hasNext()) {
+            String part = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            in.beginObject();
+            while (in.hasNext()) {
+                String field = in.nextName();
+                switch (field) {
+                case "year":
+                    year = in.nextInt();
+                    break;
+                case "month":
+                    month = in.nextInt();
+                    break;
+                case "day":
+                    day = in.nextInt();
+                    break;
+                case "hour":
+                    hour = in.nextInt();
+                    break;
+                case "minute":
+                    minute = in.nextInt();
+                    break;
+                case "second":
+                    second = in.nextInt();
+                    break;
+                case "nano":
+                    nano = in.nextInt();
+                    break;
+                default:
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            if (!"date".equals(part) && !"time".equals(part)) {
+                throw new JsonParseException("Unexpected LocalDateTime part: " + part);
+            }
+        }
+        in.endObject();
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+}
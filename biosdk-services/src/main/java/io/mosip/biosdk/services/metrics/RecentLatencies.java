@@ -0,0 +1,52 @@
+package io.mosip.biosdk.services.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The last latencies recorded, in a fixed size ring, for percentiles over a recent time
+ * window. Recording is lock free; computing a percentile sorts a copy of the ring, which
+ * is cheap enough for health checks and metric scrapes.
+ */
+final class RecentLatencies {
+
+    private final AtomicLongArray latencies;
+    private final AtomicLongArray recordedAt;
+    private final AtomicInteger next = new AtomicInteger();
+    private final long windowNanos;
+
+    RecentLatencies(int capacity, long windowNanos) {
+        this.latencies = new AtomicLongArray(capacity);
+        this.recordedAt = new AtomicLongArray(capacity);
+        this.windowNanos = windowNanos;
+    }
+
+    void record(long nanos) {
+        int slot = Math.floorMod(next.getAndIncrement(), latencies.length());
+        latencies.set(slot, nanos);
+        recordedAt.set(slot, System.nanoTime());
+    }
+
+    /**
+     * @return the latency at the percentile (0 to 1) of the latencies recorded within the
+     *         window, 0 if there are none
+     */
+    long percentile(double percentile) {
+        long now = System.nanoTime();
+        long[] recent = new long[latencies.length()];
+        int count = 0;
+        for (int i = 0; i < recent.length; i++) {
+            long at = recordedAt.get(i);
+            if (at != 0 && now - at <= windowNanos) {
+                recent[count++] = latencies.get(i);
+            }
+        }
+        if (count == 0) {
+            return 0;
+        }
+        Arrays.sort(recent, 0, count);
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return recent[Math.max(0, Math.min(count - 1, index))];
+    }
+}
@@ -0,0 +1,188 @@
+package io.mosip.biosdk.services.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.biosdk.services.constants.SdkOperation;
+import io.mosip.biosdk.services.sdk.OperationBulkheads;
+
+/**
+ * Reports how close the node is to saturation: SDK calls in flight against the SDK
+ * threads available, requests queued per operation, the recent p99 SDK latency and the
+ * free share of the heap. Health turns OUT_OF_SERVICE while any of them is past its
+ * configured threshold, so that load balancers route around the node; a threshold of 0
+ * is not checked.
+ *
+ * The same values are published as gauges, together with biosdk.saturation.level, the
+ * highest of the values relative to their thresholds, as a single signal to autoscale on.
+ */
+@Component
+public class SaturationHealthIndicator implements HealthIndicator {
+
+    private static final String ALL_OPERATIONS = "all";
+    private static final double P99 = 0.99;
+
+    @Autowired
+    private SdkMetrics sdkMetrics;
+
+    @Autowired
+    private OperationBulkheads bulkheads;
+
+    @Autowired
+    @Qualifier("sdkComputeExecutor")
+    private ExecutorService sdkComputeExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Share of the SDK threads in use, from 0 to 1 */
+    @Value("${mosip.biosdk.saturation.max-sdk-utilization:0}")
+    private double maxSdkUtilization;
+
+    /** Requests queued for one operation, or for the compute executor without bulkheads */
+    @Value("${mosip.biosdk.saturation.max-queue-depth:0}")
+    private int maxQueueDepth;
+
+    @Value("${mosip.biosdk.saturation.max-latency-p99-ms:0}")
+    private double maxLatencyP99Millis;
+
+    /** Share of the maximum heap that must remain free, from 0 to 1 */
+    @Value("${mosip.biosdk.saturation.min-heap-free-ratio:0}")
+    private double minHeapFreeRatio;
+
+    @PostConstruct
+    public void registerGauges() {
+        Gauge.builder("biosdk.saturation.sdk.utilization", this, SaturationHealthIndicator::sdkUtilization)
+                .register(meterRegistry);
+        Gauge.builder("biosdk.saturation.queue.depth", this, indicator -> indicator.maxOf(indicator.queueDepths()))
+                .register(meterRegistry);
+        Gauge.builder("biosdk.saturation.latency.p99", sdkMetrics, metrics -> metrics.getRecentSdkLatencyMillis(P99))
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("biosdk.saturation.heap.free.ratio", this, indicator -> heapFreeRatio())
+                .register(meterRegistry);
+        Gauge.builder("biosdk.saturation.level", this, SaturationHealthIndicator::level)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Health health() {
+        double utilization = sdkUtilization();
+        Map<String, Integer> queueDepths = queueDepths();
+        int queueDepth = maxOf(queueDepths);
+        double latencyP99 = sdkMetrics.getRecentSdkLatencyMillis(P99);
+        double heapFree = heapFreeRatio();
+
+        List<String> saturated = new ArrayList<>();
+        if (maxSdkUtilization > 0 && utilization >= maxSdkUtilization) {
+            saturated.add("sdkUtilization");
+        }
+        if (maxQueueDepth > 0 && queueDepth >= maxQueueDepth) {
+            saturated.add("queueDepth");
+        }
+        if (maxLatencyP99Millis > 0 && latencyP99 >= maxLatencyP99Millis) {
+            saturated.add("latencyP99");
+        }
+        if (minHeapFreeRatio > 0 && heapFree <= minHeapFreeRatio) {
+            saturated.add("heapFree");
+        }
+        return Health.status(saturated.isEmpty() ? Status.UP : Status.OUT_OF_SERVICE)
+                .withDetail("sdkCallsInFlight", sdkMetrics.getSdkCallsInFlight())
+                .withDetail("sdkThreads", sdkThreads())
+                .withDetail("sdkUtilization", utilization)
+                .withDetail("queueDepth", queueDepths)
+                .withDetail("latencyP99Ms", latencyP99)
+                .withDetail("heapFreeRatio", heapFree)
+                .withDetail("level", level())
+                .withDetail("saturated", saturated)
+                .build();
+    }
+
+    /**
+     * @return the highest of the SDK utilization and of the values relative to their
+     *         thresholds; 1 or more means that the node is saturated
+     */
+    private double level() {
+        double level = sdkUtilization();
+        if (maxSdkUtilization > 0) {
+            level = Math.max(level, sdkUtilization() / maxSdkUtilization);
+        }
+        if (maxQueueDepth > 0) {
+            level = Math.max(level, (double) maxOf(queueDepths()) / maxQueueDepth);
+        }
+        if (maxLatencyP99Millis > 0) {
+            level = Math.max(level, sdkMetrics.getRecentSdkLatencyMillis(P99) / maxLatencyP99Millis);
+        }
+        if (minHeapFreeRatio > 0) {
+            level = Math.max(level, (1 - heapFreeRatio()) / (1 - minHeapFreeRatio));
+        }
+        return level;
+    }
+
+    private double sdkUtilization() {
+        return (double) sdkMetrics.getSdkCallsInFlight() / Math.max(1, sdkThreads());
+    }
+
+    /**
+     * @return the threads SDK calls run on: those of all bulkheads, otherwise those of
+     *         the compute executor
+     */
+    private int sdkThreads() {
+        if (bulkheads.isEnabled()) {
+            int threads = 0;
+            for (SdkOperation operation : SdkOperation.values()) {
+                ThreadPoolExecutor executor = bulkheads.getExecutor(operation);
+                threads += executor == null ? 0 : executor.getMaximumPoolSize();
+            }
+            return threads;
+        }
+        return sdkComputeExecutor instanceof ThreadPoolExecutor
+                ? ((ThreadPoolExecutor) sdkComputeExecutor).getMaximumPoolSize()
+                : Runtime.getRuntime().availableProcessors();
+    }
+
+    private Map<String, Integer> queueDepths() {
+        Map<String, Integer> depths = new LinkedHashMap<>();
+        if (bulkheads.isEnabled()) {
+            for (SdkOperation operation : SdkOperation.values()) {
+                ThreadPoolExecutor executor = bulkheads.getExecutor(operation);
+                if (executor != null) {
+                    depths.put(operation.getOperationName(), executor.getQueue().size());
+                }
+            }
+        } else if (sdkComputeExecutor instanceof ThreadPoolExecutor) {
+            depths.put(ALL_OPERATIONS, ((ThreadPoolExecutor) sdkComputeExecutor).getQueue().size());
+        }
+        return depths;
+    }
+
+    private int maxOf(Map<String, Integer> queueDepths) {
+        int max = 0;
+        for (int depth : queueDepths.values()) {
+            max = Math.max(max, depth);
+        }
+        return max;
+    }
+
+    private static double heapFreeRatio() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        return 1 - (double) used / runtime.maxMemory();
+    }
+}
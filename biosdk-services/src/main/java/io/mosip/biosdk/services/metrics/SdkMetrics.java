@@ -0,0 +1,205 @@
+package io.mosip.biosdk.services.metrics;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.biosdk.services.factory.BioSdkServiceFactory;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+
+/**
+ * Meters of the request processing phases. Every operation is timed per phase:
+ * {@link #PHASE_DECODE} (base64 decoding and JSON binding, done in one streaming pass),
+ * {@link #PHASE_SDK} (the IBioApi call) and {@link #PHASE_SERIALIZE} (writing the
+ * response), tagged by operation, spec version and requested modalities.
+ *
+ * The version comes from the client, so only the spec versions of the service providers
+ * are used as tag values; any other version is tagged "other", which keeps the number of
+ * time series bounded.
+ */
+@Component
+public class SdkMetrics {
+
+    public static final String PHASE_DECODE = "decode";
+    public static final String PHASE_SDK = "sdk";
+    public static final String PHASE_SERIALIZE = "serialize";
+
+    private static final String ALL_MODALITIES = "all";
+    private static final String UNKNOWN = "unknown";
+    private static final String OTHER = "other";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /** Resolved on first use, as the service providers are metered themselves */
+    @Autowired
+    private ObjectProvider<BioSdkServiceFactory> bioSdkServiceFactory;
+
+    private volatile Set<String> specVersions;
+
+    /** Publishes histogram buckets, for percentiles aggregated across instances */
+    @Value("${mosip.biosdk.metrics.histograms:true}")
+    private boolean histograms;
+
+    /** Window of the recent SDK latency percentiles */
+    @Value("${mosip.biosdk.metrics.recent-window-seconds:60}")
+    private long recentWindowSeconds;
+
+    @Value("${mosip.biosdk.metrics.recent-samples:2048}")
+    private int recentSamples;
+
+    private final ConcurrentMap<String, AtomicInteger> sdkCallsInFlight = new ConcurrentHashMap<>();
+
+    private RecentLatencies recentSdkLatencies;
+
+    @PostConstruct
+    public void createRecentLatencies() {
+        recentSdkLatencies = new RecentLatencies(Math.max(1, recentSamples), TimeUnit.SECONDS.toNanos(recentWindowSeconds));
+    }
+
+    /**
+     * Times the body as the phase. SDK phases are also counted as in flight while they
+     * run and feed the recent SDK latencies.
+     */
+    public <T> T time(String operation, String phase, String version, List<BiometricType> modalities, Supplier<T> body) {
+        AtomicInteger inFlight = PHASE_SDK.equals(phase) ? sdkCallsInFlight(operation) : null;
+        if (inFlight != null) {
+            inFlight.incrementAndGet();
+        }
+        long start = System.nanoTime();
+        try {
+            return body.get();
+        } finally {
+            long nanos = System.nanoTime() - start;
+            if (inFlight != null) {
+                inFlight.decrementAndGet();
+                recentSdkLatencies.record(nanos);
+            }
+            recordPhase(operation, phase, version, modalities, nanos);
+        }
+    }
+
+    /**
+     * @return the number of SDK calls running, over all operations
+     */
+    public int getSdkCallsInFlight() {
+        int total = 0;
+        for (AtomicInteger inFlight : sdkCallsInFlight.values()) {
+            total += inFlight.get();
+        }
+        return total;
+    }
+
+    /**
+     * @return the SDK latency at the percentile (0 to 1) over the recent window, in
+     *         milliseconds, 0 when no SDK call completed within the window
+     */
+    public double getRecentSdkLatencyMillis(double percentile) {
+        return recentSdkLatencies.percentile(percentile) / 1_000_000d;
+    }
+
+    private AtomicInteger sdkCallsInFlight(String operation) {
+        return sdkCallsInFlight.computeIfAbsent(operation, name -> {
+            AtomicInteger inFlight = new AtomicInteger();
+            Gauge.builder("biosdk.sdk.in.flight", inFlight, AtomicInteger::get)
+                    .tag("operation", name)
+                    .register(meterRegistry);
+            return inFlight;
+        });
+    }
+
+    public void recordPhase(String operation, String phase, String version, List<BiometricType> modalities, long nanos) {
+        Timer.builder("biosdk.operation.phase")
+                .tag("operation", operation)
+                .tag("phase", phase)
+                .tag("version", versionTag(version))
+                .tag("modality", modalityTag(modalities))
+                .publishPercentileHistogram(histograms)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRequestBytes(String operation, long bytes) {
+        summary("biosdk.request.bytes", operation, "bytes").record(bytes);
+    }
+
+    public void recordResponseBytes(String operation, long bytes) {
+        summary("biosdk.response.bytes", operation, "bytes").record(bytes);
+    }
+
+    public void recordGallerySize(String operation, int records) {
+        summary("biosdk.gallery.size", operation, "records").record(records);
+    }
+
+    public void recordSegments(String operation, BiometricRecord sample) {
+        if (sample != null && sample.getSegments() != null) {
+            summary("biosdk.sample.segments", operation, "segments").record(sample.getSegments().size());
+        }
+    }
+
+    public void countError(String operation, String code) {
+        Counter.builder("biosdk.errors")
+                .tag("operation", operation)
+                .tag("code", tagValue(code))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private DistributionSummary summary(String name, String operation, String unit) {
+        return DistributionSummary.builder(name)
+                .tag("operation", operation)
+                .baseUnit(unit)
+                .publishPercentileHistogram(histograms)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the requested modalities in a stable order, "all" when none were given
+     */
+    private static String modalityTag(List<BiometricType> modalities) {
+        if (modalities == null || modalities.isEmpty()) {
+            return ALL_MODALITIES;
+        }
+        StringBuilder tag = new StringBuilder();
+        modalities.stream().map(String::valueOf).distinct().sorted().forEach(modality -> {
+            if (tag.length() > 0) {
+                tag.append(',');
+            }
+            tag.append(modality);
+        });
+        return tag.toString();
+    }
+
+    private String versionTag(String version) {
+        if (version == null || version.isEmpty()) {
+            return UNKNOWN;
+        }
+        Set<String> versions = specVersions;
+        if (versions == null) {
+            versions = bioSdkServiceFactory.getObject().getSpecVersions();
+            specVersions = versions;
+        }
+        return versions.contains(version) ? version : OTHER;
+    }
+
+    private static String tagValue(String value) {
+        return value == null || value.isEmpty() ? UNKNOWN : value;
+    }
+}
@@ -0,0 +1,302 @@
+package io.mosip.biosdk.services.sdk;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.QualityScore;
+import io.mosip.kernel.biometrics.model.Response;
+
+/**
+ * Splits biometric records into parts by the modality of their segments, so that the
+ * parts can be processed separately, and merges the responses of the parts back into
+ * the response for the whole record.
+ *
+ * Parts are keyed by a function of the modality, e.g. the SDK handling the modality or
+ * the modality itself. A segment has the modality of the first type of its BDB info;
+ * segments without a type get the key of a null modality.
+ */
+public final class ModalityPartitioner {
+
+    private ModalityPartitioner() {
+    }
+
+    /** The segments of a record that share a key, and their positions in the record */
+    public static final class Part<K> {
+        private final K key;
+        private final List<BiometricType> modalities = new ArrayList<>();
+        private final List<Integer> positions = new ArrayList<>();
+        private final BiometricRecord record;
+
+        private Part(K key, BiometricRecord source) {
+            this.key = key;
+            this.record = headerOf(source);
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        /** Modalities of the segments of the part, in order of appearance */
+        public List<BiometricType> getModalities() {
+            return modalities;
+        }
+
+        public BiometricRecord getRecord() {
+            return record;
+        }
+    }
+
+    public static BiometricType modalityOf(BIR segment) {
+        if (segment == null || segment.getBdbInfo() == null || segment.getBdbInfo().getType() == null
+                || segment.getBdbInfo().getType().isEmpty()) {
+            return null;
+        }
+        return segment.getBdbInfo().getType().get(0);
+    }
+
+    /**
+     * @return the parts of the record in order of first appearance of their key, none
+     *         for a record without segments
+     */
+    public static <K> List<Part<K>> split(BiometricRecord record, Function<BiometricType, K> keyOf) {
+        Map<K, Part<K>> parts = new LinkedHashMap<>();
+        if (record != null && record.getSegments() != null) {
+            List<BIR> segments = record.getSegments();
+            for (int i = 0; i < segments.size(); i++) {
+                BIR segment = segments.get(i);
+                BiometricType modality = modalityOf(segment);
+                K key = keyOf.apply(modality);
+                Part<K> part = parts.computeIfAbsent(key, k -> new Part<>(k, record));
+                if (modality != null && !part.modalities.contains(modality)) {
+                    part.modalities.add(modality);
+                }
+                part.positions.add(i);
+                part.record.getSegments().add(segment);
+            }
+        }
+        return new ArrayList<>(parts.values());
+    }
+
+    /**
+     * @return one part per segment of the record, keyed by its position, none for a
+     *         record without segments
+     */
+    public static List<Part<Integer>> splitSegments(BiometricRecord record) {
+        List<Part<Integer>> parts = new ArrayList<>();
+        if (record != null && record.getSegments() != null) {
+            List<BIR> segments = record.getSegments();
+            for (int i = 0; i < segments.size(); i++) {
+                Part<Integer> part = new Part<>(i, record);
+                BiometricType modality = modalityOf(segments.get(i));
+                if (modality != null) {
+                    part.modalities.add(modality);
+                }
+                part.positions.add(i);
+                part.record.getSegments().add(segments.get(i));
+                parts.add(part);
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * @return a record with the header of the given record and only its segments with
+     *         the key, possibly none, so that gallery records keep their positions
+     */
+    public static <K> BiometricRecord subset(BiometricRecord record, K key, Function<BiometricType, K> keyOf) {
+        BiometricRecord subset = headerOf(record);
+        if (record != null && record.getSegments() != null) {
+            for (BIR segment : record.getSegments()) {
+                if (Objects.equals(key, keyOf.apply(modalityOf(segment)))) {
+                    subset.getSegments().add(segment);
+                }
+            }
+        }
+        return subset;
+    }
+
+    /**
+     * @return the requested modalities handled by the part: null when none were requested,
+     *         meaning all, and empty when none of the requested ones belong to the part
+     */
+    public static <K> List<BiometricType> requestedOf(Part<K> part, List<BiometricType> requested,
+            Function<BiometricType, K> keyOf) {
+        if (requested == null || requested.isEmpty()) {
+            return requested;
+        }
+        List<BiometricType> modalities = new ArrayList<>();
+        for (BiometricType modality : requested) {
+            if (Objects.equals(part.key, keyOf.apply(modality))) {
+                modalities.add(modality);
+            }
+        }
+        return modalities;
+    }
+
+    /**
+     * Like {@link #requestedOf(Part, List, Function)} for parts whose key is not a function
+     * of the modality, such as those of {@link #splitSegments(BiometricRecord)}: the
+     * requested modalities among those of the segments of the part.
+     */
+    public static List<BiometricType> requestedOf(Part<?> part, List<BiometricType> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return requested;
+        }
+        List<BiometricType> modalities = new ArrayList<>(part.getModalities());
+        modalities.retainAll(requested);
+        return modalities;
+    }
+
+    /**
+     * @return the first unsuccessful response, otherwise the union of the scores and
+     *         analytics of all responses
+     */
+    public static Response<QualityCheck> mergeQuality(List<Response<QualityCheck>> responses) {
+        Response<QualityCheck> failure = firstFailure(responses);
+        if (failure != null) {
+            return failure;
+        }
+        Map<BiometricType, QualityScore> scores = new EnumMap<>(BiometricType.class);
+        Map<String, String> analyticsInfo = new HashMap<>();
+        for (Response<QualityCheck> response : responses) {
+            QualityCheck qualityCheck = response.getResponse();
+            if (qualityCheck != null) {
+                putAll(scores, qualityCheck.getScores());
+                putAll(analyticsInfo, qualityCheck.getAnalyticsInfo());
+            }
+        }
+        QualityCheck qualityCheck = new QualityCheck();
+        qualityCheck.setScores(scores);
+        qualityCheck.setAnalyticsInfo(analyticsInfo);
+        return success(qualityCheck);
+    }
+
+    /**
+     * @return the first unsuccessful response, otherwise one decision per gallery record
+     *         with the modality decisions and analytics of all responses
+     */
+    public static Response<MatchDecision[]> mergeDecisions(int gallerySize, List<Response<MatchDecision[]>> responses) {
+        Response<MatchDecision[]> failure = firstFailure(responses);
+        if (failure != null) {
+            return failure;
+        }
+        MatchDecision[] merged = new MatchDecision[gallerySize];
+        for (int i = 0; i < gallerySize; i++) {
+            merged[i] = new MatchDecision(i);
+            merged[i].setDecisions(new EnumMap<>(BiometricType.class));
+            merged[i].setAnalyticsInfo(new HashMap<>());
+        }
+        for (Response<MatchDecision[]> response : responses) {
+            if (response.getResponse() == null) {
+                continue;
+            }
+            for (MatchDecision decision : response.getResponse()) {
+                if (decision != null && decision.getGalleryIndex() >= 0 && decision.getGalleryIndex() < gallerySize) {
+                    MatchDecision target = merged[decision.getGalleryIndex()];
+                    Map<BiometricType, Decision> decisions = decision.getDecisions();
+                    putAll(target.getDecisions(), decisions);
+                    putAll(target.getAnalyticsInfo(), decision.getAnalyticsInfo());
+                }
+            }
+        }
+        return success(merged);
+    }
+
+    /**
+     * Merges the records returned for the parts of the source record. When every part
+     * came back with one segment per input segment, the segments take the positions of
+     * their input segments; otherwise they are concatenated in part order.
+     *
+     * @return the first unsuccessful response, otherwise the merged record
+     */
+    public static <K> Response<BiometricRecord> mergeRecords(BiometricRecord source, List<Part<K>> parts,
+            List<Response<BiometricRecord>> responses) {
+        Response<BiometricRecord> failure = firstFailure(responses);
+        if (failure != null) {
+            return failure;
+        }
+        boolean positional = true;
+        for (int i = 0; i < parts.size(); i++) {
+            BiometricRecord result = responses.get(i).getResponse();
+            int segments = result == null || result.getSegments() == null ? 0 : result.getSegments().size();
+            positional &= segments == parts.get(i).positions.size();
+        }
+        BiometricRecord merged = headerOf(source);
+        if (positional) {
+            BIR[] segments = new BIR[source.getSegments().size()];
+            for (int i = 0; i < parts.size(); i++) {
+                List<BIR> result = responses.get(i).getResponse().getSegments();
+                List<Integer> positions = parts.get(i).positions;
+                for (int j = 0; j < positions.size(); j++) {
+                    segments[positions.get(j)] = result.get(j);
+                }
+            }
+            for (BIR segment : segments) {
+                if (segment != null) {
+                    merged.getSegments().add(segment);
+                }
+            }
+        } else {
+            for (Response<BiometricRecord> response : responses) {
+                if (response.getResponse() != null && response.getResponse().getSegments() != null) {
+                    merged.getSegments().addAll(response.getResponse().getSegments());
+                }
+            }
+        }
+        return success(merged);
+    }
+
+    private static BiometricRecord headerOf(BiometricRecord source) {
+        BiometricRecord record = new BiometricRecord();
+        if (source != null) {
+            record.setVersion(source.getVersion());
+            record.setCbeffversion(source.getCbeffversion());
+            record.setBirInfo(source.getBirInfo());
+            record.setOthers(source.getOthers());
+        }
+        record.setSegments(new ArrayList<>());
+        return record;
+    }
+
+    private static <T> Response<T> firstFailure(List<Response<T>> responses) {
+        for (Response<T> response : responses) {
+            if (response == null) {
+                Response<T> failure = new Response<>();
+                failure.setStatusCode(ResponseStatus.UNKNOWN_ERROR.getStatusCode());
+                failure.setStatusMessage(ResponseStatus.UNKNOWN_ERROR.getStatusMessage());
+                return failure;
+            }
+            if (response.getStatusCode() == null || response.getStatusCode() != ResponseStatus.SUCCESS.getStatusCode()) {
+                return response;
+            }
+        }
+        return null;
+    }
+
+    private static <T> Response<T> success(T result) {
+        Response<T> response = new Response<>();
+        response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
+        response.setStatusMessage(ResponseStatus.SUCCESS.getStatusMessage());
+        response.setResponse(result);
+        return response;
+    }
+
+    private static <K, V> void putAll(Map<K, V> target, Map<K, V> source) {
+        if (source != null) {
+            target.putAll(source);
+        }
+    }
+}
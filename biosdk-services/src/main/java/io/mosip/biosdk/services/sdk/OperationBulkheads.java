@@ -0,0 +1,179 @@
+package io.mosip.biosdk.services.sdk;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.constants.SdkOperation;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.biosdk.services.utils.Utils;
+
+/**
+ * One bounded executor per SDK operation, so that a burst of slow operations cannot
+ * take the threads or queue slots of quick ones. Work that does not fit the queue of
+ * its operation is rejected immediately with {@link ErrorMessages#TOO_MANY_REQUESTS}.
+ *
+ * Per operation configuration, e.g. for match:
+ * mosip.biosdk.bulkhead.match.concurrency and mosip.biosdk.bulkhead.match.queue-size
+ */
+@Component
+public class OperationBulkheads {
+
+    private static final ThreadLocal<SdkOperation> CURRENT_OPERATION = new ThreadLocal<>();
+
+    @Autowired
+    private Environment env;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${mosip.biosdk.bulkhead.enabled:false}")
+    private boolean enabled;
+
+    private final Map<SdkOperation, ThreadPoolExecutor> executors = new EnumMap<>(SdkOperation.class);
+    private final Map<SdkOperation, Counter> rejections = new EnumMap<>(SdkOperation.class);
+
+    @PostConstruct
+    public void createBulkheads() {
+        if (!enabled) {
+            return;
+        }
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (SdkOperation operation : SdkOperation.values()) {
+            String prefix = "mosip.biosdk.bulkhead." + operation.getOperationName();
+            int concurrency = Math.max(1, env.getProperty(prefix + ".concurrency", Integer.class, processors));
+            int queueSize = Math.max(1, env.getProperty(prefix + ".queue-size", Integer.class, 100));
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency, 60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueSize),
+                    new CustomizableThreadFactory("biosdk-" + operation.getOperationName() + "-"),
+                    new ThreadPoolExecutor.AbortPolicy());
+            executors.put(operation, executor);
+            String name = operation.getOperationName();
+            Gauge.builder("biosdk.bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+                    .tag("operation", name).register(meterRegistry);
+            Gauge.builder("biosdk.bulkhead.queue.depth", executor, e -> e.getQueue().size())
+                    .tag("operation", name).register(meterRegistry);
+            rejections.put(operation, Counter.builder("biosdk.bulkhead.rejected")
+                    .tag("operation", name).register(meterRegistry));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    /**
+     * Runs the task in the bulkhead of the operation and waits for its result. Runs inline
+     * when bulkheads are disabled or the caller already is a thread of that bulkhead.
+     */
+    public <T> T call(SdkOperation operation, Supplier<T> task) {
+        ThreadPoolExecutor executor = executors.get(operation);
+        if (executor == null || CURRENT_OPERATION.get() == operation) {
+            return task.get();
+        }
+        Future<T> future = submitTo(operation, executor, task);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BioSDKException(ErrorMessages.UNCHECKED_EXCEPTION.toString(), e.toString());
+        } catch (ExecutionException e) {
+            throw Utils.unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Starts the task in the bulkhead of the operation without waiting for it. A full
+     * queue still fails fast, with the rejection thrown to the caller. Completing the
+     * returned future first, e.g. by a timeout, takes the task off the queue if it has
+     * not started yet; a running SDK call is not interrupted.
+     */
+    public <T> CompletableFuture<T> submit(SdkOperation operation, Supplier<T> task) {
+        ThreadPoolExecutor executor = executors.get(operation);
+        if (executor == null) {
+            return CompletableFuture.completedFuture(task.get());
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<Object> queued = submitTo(operation, executor, () -> runUnlessDone(result, task));
+        result.whenComplete((value, t) -> cancelQueued(executor, queued, t));
+        return result;
+    }
+
+    /**
+     * Like {@link CompletableFuture#supplyAsync(Supplier, java.util.concurrent.Executor)},
+     * except that completing the returned future first, e.g. by a timeout, takes the task
+     * off the queue of the executor if it has not started yet.
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> task, ExecutorService executor) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<Object> queued = executor.submit(() -> runUnlessDone(result, task));
+        result.whenComplete((value, t) -> cancelQueued(executor, queued, t));
+        return result;
+    }
+
+    public boolean isEnabled() {
+        return !executors.isEmpty();
+    }
+
+    public ThreadPoolExecutor getExecutor(SdkOperation operation) {
+        return executors.get(operation);
+    }
+
+    private <T> Future<T> submitTo(SdkOperation operation, ThreadPoolExecutor executor, Supplier<T> task) {
+        try {
+            return executor.submit(() -> {
+                CURRENT_OPERATION.set(operation);
+                try {
+                    return task.get();
+                } finally {
+                    CURRENT_OPERATION.remove();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.get(operation).increment();
+            throw new BioSDKException(ErrorMessages.TOO_MANY_REQUESTS.toString(),
+                    ErrorMessages.TOO_MANY_REQUESTS.getMessage() + ": " + operation.getOperationName());
+        }
+    }
+
+    private static <T> Object runUnlessDone(CompletableFuture<T> result, Supplier<T> task) {
+        if (!result.isDone()) {
+            try {
+                result.complete(task.get());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }
+        return null;
+    }
+
+    private static void cancelQueued(ExecutorService executor, Future<?> queued, Throwable failure) {
+        if (failure != null && queued.cancel(false)
+                && executor instanceof ThreadPoolExecutor && queued instanceof Runnable) {
+            ((ThreadPoolExecutor) executor).remove((Runnable) queued);
+        }
+    }
+}
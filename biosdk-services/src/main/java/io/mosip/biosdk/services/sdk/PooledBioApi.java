@@ -0,0 +1,186 @@
+package io.mosip.biosdk.services.sdk;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+
+/**
+ * {@link IBioApiV2} backed by a fixed pool of SDK instances. Every call checks an
+ * instance out for its duration, so an instance is never used by two threads at once.
+ *
+ * An init call runs on one instance right away; every other instance is initialized
+ * with the same parameters the next time it is checked out.
+ */
+public class PooledBioApi implements IBioApiV2 {
+
+    private final BlockingQueue<PooledInstance> idleInstances;
+    private final int size;
+    private final long borrowTimeoutMillis;
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final Timer waitTimer;
+
+    private volatile InitState initState = new InitState(0L, null);
+
+    public PooledBioApi(Supplier<IBioApiV2> instanceFactory, int size, long borrowTimeoutMillis, MeterRegistry meterRegistry) {
+        this(instanceFactory, size, borrowTimeoutMillis, Tags.empty(), meterRegistry);
+    }
+
+    /**
+     * @param tags added to the pool metrics, to tell apart several pools
+     */
+    public PooledBioApi(Supplier<IBioApiV2> instanceFactory, int size, long borrowTimeoutMillis, Tags tags,
+            MeterRegistry meterRegistry) {
+        this.size = Math.max(1, size);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleInstances = new ArrayBlockingQueue<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            idleInstances.add(new PooledInstance(instanceFactory.get()));
+        }
+        this.waitTimer = Timer.builder("biosdk.sdk.pool.wait")
+                .description("Time spent waiting for a Bio SDK instance")
+                .tags(tags).register(meterRegistry);
+        Gauge.builder("biosdk.sdk.pool.size", this, PooledBioApi::getSize).tags(tags).register(meterRegistry);
+        Gauge.builder("biosdk.sdk.pool.in.use", this, PooledBioApi::getInUse).tags(tags).register(meterRegistry);
+        Gauge.builder("biosdk.sdk.pool.utilization", this, pool -> (double) pool.getInUse() / pool.getSize())
+                .tags(tags).register(meterRegistry);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getInUse() {
+        return inUse.get();
+    }
+
+    @Override
+    public SDKInfo init(Map<String, String> initParams) {
+        PooledInstance instance = borrow();
+        try {
+            synchronized (this) {
+                initState = new InitState(initState.generation + 1, initParams);
+                instance.generation = initState.generation;
+            }
+            return instance.sdk.init(initParams);
+        } finally {
+            release(instance);
+        }
+    }
+
+    @Override
+    public Response<QualityCheck> checkQuality(BiometricRecord sample, List<BiometricType> modalitiesToCheck,
+            Map<String, String> flags) {
+        return execute(sdk -> sdk.checkQuality(sample, modalitiesToCheck, flags));
+    }
+
+    @Override
+    public Response<MatchDecision[]> match(BiometricRecord sample, BiometricRecord[] gallery,
+            List<BiometricType> modalitiesToMatch, Map<String, String> flags) {
+        return execute(sdk -> sdk.match(sample, gallery, modalitiesToMatch, flags));
+    }
+
+    @Override
+    public Response<BiometricRecord> extractTemplate(BiometricRecord sample, List<BiometricType> modalitiesToExtract,
+            Map<String, String> flags) {
+        return execute(sdk -> sdk.extractTemplate(sample, modalitiesToExtract, flags));
+    }
+
+    @Override
+    public Response<BiometricRecord> segment(BiometricRecord sample, List<BiometricType> modalitiesToSegment,
+            Map<String, String> flags) {
+        return execute(sdk -> sdk.segment(sample, modalitiesToSegment, flags));
+    }
+
+    @Override
+    @Deprecated
+    public BiometricRecord convertFormat(BiometricRecord sample, String sourceFormat, String targetFormat,
+            Map<String, String> sourceParams, Map<String, String> targetParams, List<BiometricType> modalitiesToConvert) {
+        return execute(sdk -> sdk.convertFormat(sample, sourceFormat, targetFormat, sourceParams, targetParams,
+                modalitiesToConvert));
+    }
+
+    @Override
+    public Response<BiometricRecord> convertFormatV2(BiometricRecord sample, String sourceFormat, String targetFormat,
+            Map<String, String> sourceParams, Map<String, String> targetParams, List<BiometricType> modalitiesToConvert) {
+        return execute(sdk -> sdk.convertFormatV2(sample, sourceFormat, targetFormat, sourceParams, targetParams,
+                modalitiesToConvert));
+    }
+
+    private <T> T execute(Function<IBioApiV2, T> call) {
+        PooledInstance instance = borrow();
+        try {
+            InitState state = initState;
+            if (instance.generation != state.generation) {
+                instance.sdk.init(state.initParams);
+                instance.generation = state.generation;
+            }
+            return call.apply(instance.sdk);
+        } finally {
+            release(instance);
+        }
+    }
+
+    private PooledInstance borrow() {
+        long start = System.nanoTime();
+        PooledInstance instance;
+        try {
+            instance = idleInstances.poll(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BioSDKException(ErrorMessages.SDK_INSTANCE_UNAVAILABLE.toString(),
+                    ErrorMessages.SDK_INSTANCE_UNAVAILABLE.getMessage() + ": interrupted");
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (instance == null) {
+            throw new BioSDKException(ErrorMessages.SDK_INSTANCE_UNAVAILABLE.toString(),
+                    ErrorMessages.SDK_INSTANCE_UNAVAILABLE.getMessage() + ": waited " + borrowTimeoutMillis + " ms");
+        }
+        inUse.incrementAndGet();
+        return instance;
+    }
+
+    private void release(PooledInstance instance) {
+        inUse.decrementAndGet();
+        idleInstances.add(instance);
+    }
+
+    private static final class PooledInstance {
+        private final IBioApiV2 sdk;
+        /** Init generation this instance was last initialized with, guarded by the checkout */
+        private long generation;
+
+        private PooledInstance(IBioApiV2 sdk) {
+            this.sdk = sdk;
+        }
+    }
+
+    private static final class InitState {
+        private final long generation;
+        private final Map<String, String> initParams;
+
+        private InitState(long generation, Map<String, String> initParams) {
+            this.generation = generation;
+            this.initParams = initParams;
+        }
+    }
+}
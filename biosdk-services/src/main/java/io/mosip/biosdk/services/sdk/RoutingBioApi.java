@@ -0,0 +1,318 @@
+package io.mosip.biosdk.services.sdk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+import io.mosip.biosdk.services.sdk.ModalityPartitioner.Part;
+import io.mosip.biosdk.services.utils.Utils;
+import io.mosip.kernel.biometrics.constant.BiometricFunction;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+
+/**
+ * {@link IBioApiV2} hosting several vendor SDKs, each handling some modalities. The
+ * segments of a record are routed by modality; a record with modalities of several SDKs
+ * is split, the parts are processed concurrently, each on the threads of its SDK, and
+ * the results are merged. Modalities without an SDK of their own go to the default SDK.
+ *
+ * Calls run with the class loader of the SDK as context class loader.
+ */
+public class RoutingBioApi implements IBioApiV2 {
+
+    /** An SDK with the modalities it handles and the threads it runs on */
+    public static final class Route {
+        private final String name;
+        private final IBioApiV2 sdk;
+        private final ClassLoader classLoader;
+        private final ThreadPoolExecutor executor;
+
+        public Route(String name, IBioApiV2 sdk, ClassLoader classLoader, ThreadPoolExecutor executor) {
+            this.name = name;
+            this.sdk = sdk;
+            this.classLoader = classLoader;
+            this.executor = executor;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PartCall<T> {
+        Response<T> call(IBioApiV2 sdk, Route route, BiometricRecord record, List<BiometricType> modalities);
+    }
+
+    private final List<Route> routes;
+    private final Map<BiometricType, Route> routesByModality;
+    private final Route defaultRoute;
+
+    /**
+     * @param routesByModality the SDK of each routed modality
+     * @param defaultRoute     SDK of all other modalities, may be null
+     */
+    public RoutingBioApi(Map<BiometricType, Route> routesByModality, Route defaultRoute, MeterRegistry meterRegistry) {
+        this.routesByModality = new EnumMap<>(routesByModality);
+        this.defaultRoute = defaultRoute;
+        List<Route> all = new ArrayList<>();
+        for (Route route : routesByModality.values()) {
+            if (!all.contains(route)) {
+                all.add(route);
+            }
+        }
+        if (defaultRoute != null && !all.contains(defaultRoute)) {
+            all.add(defaultRoute);
+        }
+        if (all.isEmpty()) {
+            throw new IllegalArgumentException("No Bio SDK to route to");
+        }
+        this.routes = Collections.unmodifiableList(all);
+        for (Route route : routes) {
+            Gauge.builder("biosdk.routing.active", route.executor, ThreadPoolExecutor::getActiveCount)
+                    .tag("sdk", route.name).register(meterRegistry);
+            Gauge.builder("biosdk.routing.queue.depth", route.executor, e -> e.getQueue().size())
+                    .tag("sdk", route.name).register(meterRegistry);
+        }
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    /**
+     * Stops the threads of all SDKs, called by Spring when the bean is destroyed.
+     */
+    public void shutdown() {
+        routes.forEach(route -> route.executor.shutdown());
+    }
+
+    /**
+     * Initializes every SDK. The returned info is a new one with the versions, product
+     * owner and other info of the first SDK and the supported modalities and methods of
+     * all SDKs; the infos returned by the SDKs are left as they are.
+     */
+    @Override
+    public SDKInfo init(Map<String, String> initParams) {
+        List<CompletableFuture<SDKInfo>> futures = new ArrayList<>();
+        for (Route route : routes) {
+            futures.add(submit(route, () -> route.sdk.init(initParams)));
+        }
+        SDKInfo merged = null;
+        for (CompletableFuture<SDKInfo> future : futures) {
+            SDKInfo sdkInfo = Utils.join(future);
+            if (sdkInfo == null) {
+                continue;
+            }
+            if (merged == null) {
+                merged = new SDKInfo(sdkInfo.getApiVersion(), sdkInfo.getSdkVersion(), null, null);
+                merged.setProductOwner(sdkInfo.getProductOwner());
+                merged.setOtherInfo(sdkInfo.getOtherInfo() == null ? new HashMap<>() : new HashMap<>(sdkInfo.getOtherInfo()));
+                merged.setSupportedModalities(new ArrayList<>());
+                merged.setSupportedMethods(new HashMap<>());
+            }
+            mergeInto(merged, sdkInfo);
+        }
+        return merged;
+    }
+
+    @Override
+    public Response<QualityCheck> checkQuality(BiometricRecord sample, List<BiometricType> modalitiesToCheck,
+            Map<String, String> flags) {
+        PartCall<QualityCheck> call = (sdk, route, record, modalities) -> sdk.checkQuality(record, modalities, flags);
+        List<Part<Route>> parts = ModalityPartitioner.split(sample, this::routeOf);
+        if (parts.isEmpty()) {
+            return wholeRecord(sample, modalitiesToCheck, call);
+        }
+        return ModalityPartitioner.mergeQuality(fanOut(parts, modalitiesToCheck, new ArrayList<>(), call, null));
+    }
+
+    @Override
+    public Response<MatchDecision[]> match(BiometricRecord sample, BiometricRecord[] gallery,
+            List<BiometricType> modalitiesToMatch, Map<String, String> flags) {
+        List<Part<Route>> parts = ModalityPartitioner.split(sample, this::routeOf);
+        if (parts.isEmpty()) {
+            return wholeRecord(sample, modalitiesToMatch, (sdk, route, record, modalities) ->
+                    sdk.match(record, gallery, modalities, flags));
+        }
+        BiometricRecord[] records = gallery == null ? new BiometricRecord[0] : gallery;
+        List<Response<MatchDecision[]>> responses = fanOut(parts, modalitiesToMatch, new ArrayList<>(),
+                (sdk, route, record, modalities) -> {
+                    BiometricRecord[] galleryPart = new BiometricRecord[records.length];
+                    for (int i = 0; i < records.length; i++) {
+                        galleryPart[i] = ModalityPartitioner.subset(records[i], route, this::routeOf);
+                    }
+                    return sdk.match(record, galleryPart, modalities, flags);
+                }, null);
+        return ModalityPartitioner.mergeDecisions(records.length, responses);
+    }
+
+    @Override
+    public Response<BiometricRecord> extractTemplate(BiometricRecord sample, List<BiometricType> modalitiesToExtract,
+            Map<String, String> flags) {
+        return perRecordPart(sample, modalitiesToExtract, (sdk, route, record, modalities) ->
+                sdk.extractTemplate(record, modalities, flags));
+    }
+
+    @Override
+    public Response<BiometricRecord> segment(BiometricRecord sample, List<BiometricType> modalitiesToSegment,
+            Map<String, String> flags) {
+        return perRecordPart(sample, modalitiesToSegment, (sdk, route, record, modalities) ->
+                sdk.segment(record, modalities, flags));
+    }
+
+    @Override
+    @Deprecated
+    public BiometricRecord convertFormat(BiometricRecord sample, String sourceFormat, String targetFormat,
+            Map<String, String> sourceParams, Map<String, String> targetParams, List<BiometricType> modalitiesToConvert) {
+        return perRecordPart(sample, modalitiesToConvert, (sdk, route, record, modalities) -> success(sdk.convertFormat(
+                record, sourceFormat, targetFormat, sourceParams, targetParams, modalities))).getResponse();
+    }
+
+    @Override
+    public Response<BiometricRecord> convertFormatV2(BiometricRecord sample, String sourceFormat, String targetFormat,
+            Map<String, String> sourceParams, Map<String, String> targetParams, List<BiometricType> modalitiesToConvert) {
+        return perRecordPart(sample, modalitiesToConvert, (sdk, route, record, modalities) -> sdk.convertFormatV2(
+                record, sourceFormat, targetFormat, sourceParams, targetParams, modalities));
+    }
+
+    /**
+     * @return the SDK of the modality, null if there is neither a routed nor a default one
+     */
+    private Route routeOf(BiometricType modality) {
+        Route route = modality == null ? null : routesByModality.get(modality);
+        return route != null ? route : defaultRoute;
+    }
+
+    private Route firstRoute() {
+        return defaultRoute != null ? defaultRoute : routes.get(0);
+    }
+
+    private Response<BiometricRecord> perRecordPart(BiometricRecord sample, List<BiometricType> requested,
+            PartCall<BiometricRecord> call) {
+        List<Part<Route>> parts = ModalityPartitioner.split(sample, this::routeOf);
+        if (parts.isEmpty()) {
+            return wholeRecord(sample, requested, call);
+        }
+        List<Part<Route>> processed = new ArrayList<>();
+        List<Response<BiometricRecord>> responses = fanOut(parts, requested, processed, call,
+                part -> success(part.getRecord()));
+        return ModalityPartitioner.mergeRecords(sample, processed, responses);
+    }
+
+    /**
+     * Runs the call for every part with requested modalities, each on the threads of its
+     * SDK, and waits for all of them.
+     *
+     * @param processed   receives the parts answered, in the order of the responses
+     * @param unrequested answers a part without requested modalities, e.g. with its segments
+     *                    unchanged as the SDK would have returned them; null to leave the
+     *                    part out
+     */
+    private <T> List<Response<T>> fanOut(List<Part<Route>> parts, List<BiometricType> requested,
+            List<Part<Route>> processed, PartCall<T> call, Function<Part<Route>, Response<T>> unrequested) {
+        List<CompletableFuture<Response<T>>> futures = new ArrayList<>();
+        for (Part<Route> part : parts) {
+            List<BiometricType> modalities = ModalityPartitioner.requestedOf(part, requested, this::routeOf);
+            if (modalities != null && modalities.isEmpty()) {
+                if (unrequested != null) {
+                    processed.add(part);
+                    futures.add(CompletableFuture.completedFuture(unrequested.apply(part)));
+                }
+                continue;
+            }
+            Route route = part.getKey();
+            processed.add(part);
+            futures.add(route == null
+                    ? CompletableFuture.completedFuture(noSdkFor(part.getModalities()))
+                    : submit(route, () -> call.call(route.sdk, route, part.getRecord(), modalities)));
+        }
+        List<Response<T>> responses = new ArrayList<>(futures.size());
+        for (CompletableFuture<Response<T>> future : futures) {
+            responses.add(Utils.join(future));
+        }
+        return responses;
+    }
+
+    /**
+     * Runs the call for a record without segments to route by, on the default SDK.
+     */
+    private <T> Response<T> wholeRecord(BiometricRecord sample, List<BiometricType> requested, PartCall<T> call) {
+        Route route = firstRoute();
+        return Utils.join(submit(route, () -> call.call(route.sdk, route, sample, requested)));
+    }
+
+    private static <T> CompletableFuture<T> submit(Route route, Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                Thread thread = Thread.currentThread();
+                ClassLoader contextClassLoader = thread.getContextClassLoader();
+                thread.setContextClassLoader(route.classLoader);
+                try {
+                    return call.get();
+                } finally {
+                    thread.setContextClassLoader(contextClassLoader);
+                }
+            }, route.executor);
+        } catch (RejectedExecutionException e) {
+            throw new BioSDKException(ErrorMessages.TOO_MANY_REQUESTS.toString(),
+                    ErrorMessages.TOO_MANY_REQUESTS.getMessage() + ": Bio SDK " + route.name);
+        }
+    }
+
+    private static void mergeInto(SDKInfo merged, SDKInfo sdkInfo) {
+        if (sdkInfo.getSupportedModalities() != null) {
+            for (BiometricType modality : sdkInfo.getSupportedModalities()) {
+                if (!merged.getSupportedModalities().contains(modality)) {
+                    merged.getSupportedModalities().add(modality);
+                }
+            }
+        }
+        if (sdkInfo.getSupportedMethods() != null) {
+            for (Map.Entry<BiometricFunction, List<BiometricType>> method : sdkInfo.getSupportedMethods().entrySet()) {
+                List<BiometricType> modalities = new ArrayList<>(
+                        merged.getSupportedMethods().getOrDefault(method.getKey(), Collections.emptyList()));
+                for (BiometricType modality : method.getValue()) {
+                    if (!modalities.contains(modality)) {
+                        modalities.add(modality);
+                    }
+                }
+                merged.getSupportedMethods().put(method.getKey(), modalities);
+            }
+        }
+    }
+
+    private static <T> Response<T> noSdkFor(List<BiometricType> modalities) {
+        Response<T> response = new Response<>();
+        response.setStatusCode(ResponseStatus.INVALID_INPUT.getStatusCode());
+        response.setStatusMessage(String.format(ResponseStatus.INVALID_INPUT.getStatusMessage(),
+                "no Bio SDK configured for " + (modalities.isEmpty() ? "segments without type" : modalities)));
+        return response;
+    }
+
+    private static <T> Response<T> success(T result) {
+        Response<T> response = new Response<>();
+        response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
+        response.setStatusMessage(ResponseStatus.SUCCESS.getStatusMessage());
+        response.setResponse(result);
+        return response;
+    }
+}
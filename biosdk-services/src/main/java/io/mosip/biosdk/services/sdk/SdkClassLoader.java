@@ -0,0 +1,110 @@
+package io.mosip.biosdk.services.sdk;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Class loader of one vendor SDK. Classes are looked up in the SDK's own jars first, so
+ * that SDKs can bring different versions of the same library, except for the JDK and
+ * the biometrics API shared with the service, which always come from the service.
+ */
+public class SdkClassLoader extends URLClassLoader {
+
+    private static final List<String> SHARED_PACKAGES = Arrays.asList("java.", "javax.", "jdk.", "sun.",
+            "io.mosip.kernel.biometrics.", "io.mosip.kernel.core.", "org.slf4j.");
+
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
+    public SdkClassLoader(String name, URL[] urls, ClassLoader parent) {
+        super(name, urls, parent);
+    }
+
+    /**
+     * @return a loader over the given jars and directories; the jars in a directory are
+     *         included along with the directory itself
+     */
+    public static SdkClassLoader of(String name, List<String> paths, ClassLoader parent) {
+        List<URL> urls = new ArrayList<>();
+        for (String path : paths) {
+            File file = new File(path.trim());
+            if (!file.exists()) {
+                throw new IllegalStateException("Bio SDK path of " + name + " does not exist: " + file);
+            }
+            urls.add(urlOf(file));
+            File[] jars = file.isDirectory() ? file.listFiles((dir, fileName) -> fileName.endsWith(".jar")) : null;
+            if (jars != null) {
+                Arrays.sort(jars);
+                for (File jar : jars) {
+                    urls.add(urlOf(jar));
+                }
+            }
+        }
+        return new SdkClassLoader(name, urls.toArray(new URL[0]), parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(String className, boolean resolve) throws ClassNotFoundException {
+        if (isShared(className)) {
+            return super.loadClass(className, resolve);
+        }
+        synchronized (getClassLoadingLock(className)) {
+            Class<?> loaded = findLoadedClass(className);
+            if (loaded == null) {
+                try {
+                    loaded = findClass(className);
+                } catch (ClassNotFoundException e) {
+                    loaded = getParent().loadClass(className);
+                }
+            }
+            if (resolve) {
+                resolveClass(loaded);
+            }
+            return loaded;
+        }
+    }
+
+    @Override
+    public URL getResource(String resourceName) {
+        URL resource = isShared(resourceName.replace('/', '.')) ? null : findResource(resourceName);
+        return resource != null ? resource : super.getResource(resourceName);
+    }
+
+    @Override
+    public Enumeration<URL> getResources(String resourceName) throws IOException {
+        List<URL> resources = new ArrayList<>(Collections.list(findResources(resourceName)));
+        for (URL resource : Collections.list(getParent().getResources(resourceName))) {
+            if (!resources.contains(resource)) {
+                resources.add(resource);
+            }
+        }
+        return Collections.enumeration(resources);
+    }
+
+    private static boolean isShared(String className) {
+        for (String sharedPackage : SHARED_PACKAGES) {
+            if (className.startsWith(sharedPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static URL urlOf(File file) {
+        try {
+            return file.toURI().toURL();
+        } catch (MalformedURLException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
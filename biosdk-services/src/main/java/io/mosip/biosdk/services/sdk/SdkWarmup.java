@@ -0,0 +1,216 @@
+package io.mosip.biosdk.services.sdk;
+
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_IDTYPE;
+import static io.mosip.biosdk.services.constants.AppConstants.LOGGER_SESSIONID;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import com.google.gson.Gson;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.biosdk.services.config.LoggerConfig;
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+import io.mosip.kernel.core.logger.spi.Logger;
+
+/**
+ * Warms the SDK up once the application has started: creates it, calls init and runs
+ * checkQuality, extractTemplate and match on a sample record a number of times, so that
+ * class loading, native library loading and JIT compilation are done before the first
+ * real request. Health is reported DOWN until the warm-up has completed.
+ *
+ * SDK calls answering with an error or throwing an exception do not fail the warm-up, as
+ * the sample may not be valid input for every SDK. An SDK that cannot be created or
+ * initialized, a sample that cannot be read, or an error such as a missing native library
+ * do, as does any iteration that did not run.
+ */
+@Component
+public class SdkWarmup implements HealthIndicator {
+
+    private Logger logger = LoggerConfig.logConfig(SdkWarmup.class);
+
+    private enum State { PENDING, RUNNING, COMPLETED, FAILED }
+
+    @Autowired
+    private ObjectProvider<IBioApiV2> iBioApi;
+
+    @Autowired
+    private Gson gson;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Autowired
+    private Environment env;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${mosip.biosdk.warmup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${mosip.biosdk.warmup.iterations:20}")
+    private int iterations;
+
+    /** Threads running iterations concurrently, e.g. the SDK pool size to warm every instance */
+    @Value("${mosip.biosdk.warmup.threads:1}")
+    private int threads;
+
+    @Value("${mosip.biosdk.warmup.sample:classpath:warmup/sample-record.json}")
+    private String sampleLocation;
+
+    private volatile State state = State.PENDING;
+    private volatile String failure;
+    private final AtomicLong completedIterations = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            state = State.COMPLETED;
+            return;
+        }
+        state = State.RUNNING;
+        Thread warmup = new Thread(this::warmUp, "biosdk-warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = state == State.COMPLETED ? Health.up() : Health.down();
+        health.withDetail("state", state.name());
+        if (enabled) {
+            health.withDetail("iterations", completedIterations.get() + "/" + iterations);
+        }
+        if (failure != null) {
+            health.withDetail("error", failure);
+        }
+        return health.build();
+    }
+
+    private void warmUp() {
+        long start = System.nanoTime();
+        try {
+            IBioApiV2 bioApi = iBioApi.getObject();
+            Map<String, String> initParams = Binder.get(env)
+                    .bind("mosip.biosdk.warmup.init-params", Bindable.mapOf(String.class, String.class))
+                    .orElse(Collections.emptyMap());
+            bioApi.init(new HashMap<>(initParams));
+            String sample = readSample();
+            if (gson.fromJson(sample, BiometricRecord.class) == null) {
+                throw new IOException("empty warm-up sample " + sampleLocation);
+            }
+
+            AtomicReference<Throwable> workerFailure = new AtomicReference<>();
+            List<Thread> workers = new ArrayList<>();
+            int workerCount = Math.max(1, threads);
+            for (int i = 0; i < workerCount; i++) {
+                int share = iterations / workerCount + (i < iterations % workerCount ? 1 : 0);
+                Thread worker = new Thread(() -> {
+                    try {
+                        iterate(bioApi, sample, share);
+                    } catch (Throwable t) {
+                        workerFailure.compareAndSet(null, t);
+                    }
+                }, "biosdk-warmup-" + i);
+                worker.setDaemon(true);
+                worker.start();
+                workers.add(worker);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            if (workerFailure.get() != null) {
+                fail(workerFailure.get());
+                return;
+            }
+            if (completedIterations.get() < iterations) {
+                fail(new IllegalStateException("completed " + completedIterations.get() + " of " + iterations + " iterations"));
+                return;
+            }
+            state = State.COMPLETED;
+            logger.info(LOGGER_SESSIONID, LOGGER_IDTYPE, "warmup: ", "completed " + completedIterations.get() + " iterations in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(e);
+        } catch (Throwable t) {
+            fail(t);
+        } finally {
+            Timer.builder("biosdk.warmup").tag("state", state.name()).register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Errors are left to the caller, they end the iterations of the thread.
+     */
+    private void iterate(IBioApiV2 bioApi, String sample, int count) {
+        for (int i = 0; i < count; i++) {
+            // decoded every time, to warm the JSON binding of requests up as well; the sample
+            // was checked to decode in warmUp()
+            BiometricRecord record = gson.fromJson(sample, BiometricRecord.class);
+            try {
+                bioApi.checkQuality(record, null, new HashMap<>());
+                Response<BiometricRecord> extracted = bioApi.extractTemplate(record, null, new HashMap<>());
+                BiometricRecord template = isSuccess(extracted) && extracted.getResponse() != null
+                        ? extracted.getResponse() : record;
+                bioApi.match(template, new BiometricRecord[] { template }, null, new HashMap<>());
+            } catch (RuntimeException e) {
+                logger.debug(LOGGER_SESSIONID, LOGGER_IDTYPE, "warmup: ", "SDK call failed: " + e.toString());
+            }
+            completedIterations.incrementAndGet();
+        }
+    }
+
+    private String readSample() throws IOException {
+        Resource resource = resourceLoader.getResource(sampleLocation);
+        StringBuilder sample = new StringBuilder();
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            char[] buffer = new char[8192];
+            for (int read; (read = reader.read(buffer)) != -1;) {
+                sample.append(buffer, 0, read);
+            }
+        }
+        return sample.toString();
+    }
+
+    private void fail(Throwable t) {
+        failure = t.toString();
+        state = State.FAILED;
+        logger.error(LOGGER_SESSIONID, LOGGER_IDTYPE, "warmup: ", "failed: " + t.toString());
+    }
+
+    private static boolean isSuccess(Response<?> response) {
+        return response != null && response.getStatusCode() != null
+                && response.getStatusCode() == ResponseStatus.SUCCESS.getStatusCode();
+    }
+}
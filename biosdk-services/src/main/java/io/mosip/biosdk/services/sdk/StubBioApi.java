@@ -0,0 +1,255 @@
+package io.mosip.biosdk.services.sdk;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import io.mosip.biosdk.services.constants.ResponseStatus;
+import io.mosip.kernel.biometrics.constant.BiometricType;
+import io.mosip.kernel.biometrics.constant.Match;
+import io.mosip.kernel.biometrics.entities.BIR;
+import io.mosip.kernel.biometrics.entities.BiometricRecord;
+import io.mosip.kernel.biometrics.model.Decision;
+import io.mosip.kernel.biometrics.model.MatchDecision;
+import io.mosip.kernel.biometrics.model.QualityCheck;
+import io.mosip.kernel.biometrics.model.QualityScore;
+import io.mosip.kernel.biometrics.model.Response;
+import io.mosip.kernel.biometrics.model.SDKInfo;
+import io.mosip.kernel.biometrics.spi.IBioApiV2;
+
+/**
+ * Self contained {@link IBioApiV2} for running and load testing the service without a
+ * vendor SDK. Select it with biosdk_bioapi_impl=io.mosip.biosdk.services.sdk.StubBioApi.
+ *
+ * Every operation can simulate SDK cost, configured per operation, e.g. for match:
+ * mosip.biosdk.stub.match.latency-ms (sleep), .cpu-ms (busy computation), .allocation-kb
+ * (garbage per call) and .failure-rate (0 to 1, share of calls answered with
+ * UNKNOWN_ERROR). Without an operation specific value, mosip.biosdk.stub.latency-ms etc.
+ * apply; all default to 0.
+ *
+ * Results are synthetic: quality scores are 100, records are returned unchanged and a
+ * gallery record matches when it has a segment of the modality with the same BDB.
+ */
+public class StubBioApi implements IBioApiV2, EnvironmentAware {
+
+    private static final String PREFIX = "mosip.biosdk.stub.";
+
+    private final Map<String, Cost> costs = new HashMap<>();
+
+    /** Keeps allocations reachable until the next call, so they are not optimized away */
+    private volatile byte[] allocation;
+
+    @Override
+    public void setEnvironment(Environment env) {
+        for (String operation : Arrays.asList("init", "checkQuality", "match", "extractTemplate", "segment", "convertFormat")) {
+            costs.put(operation, new Cost(
+                    property(env, operation, "latency-ms", 0L),
+                    property(env, operation, "cpu-ms", 0L),
+                    property(env, operation, "allocation-kb", 0L),
+                    property(env, operation, "failure-rate", 0d)));
+        }
+    }
+
+    @Override
+    public SDKInfo init(Map<String, String> initParams) {
+        simulate("init");
+        return new SDKInfo("0.9", "1.0", "MOSIP", "stub");
+    }
+
+    @Override
+    public Response<QualityCheck> checkQuality(BiometricRecord sample, List<BiometricType> modalitiesToCheck,
+            Map<String, String> flags) {
+        if (simulate("checkQuality")) {
+            return failure();
+        }
+        Map<BiometricType, QualityScore> scores = new EnumMap<>(BiometricType.class);
+        for (BiometricType modality : modalitiesOf(sample, modalitiesToCheck)) {
+            QualityScore score = new QualityScore();
+            score.setScore(100);
+            score.setErrors(new ArrayList<>());
+            score.setAnalyticsInfo(new HashMap<>());
+            scores.put(modality, score);
+        }
+        QualityCheck qualityCheck = new QualityCheck();
+        qualityCheck.setScores(scores);
+        qualityCheck.setAnalyticsInfo(new HashMap<>());
+        return success(qualityCheck);
+    }
+
+    @Override
+    public Response<MatchDecision[]> match(BiometricRecord sample, BiometricRecord[] gallery,
+            List<BiometricType> modalitiesToMatch, Map<String, String> flags) {
+        if (simulate("match")) {
+            return failure();
+        }
+        List<BiometricType> modalities = modalitiesOf(sample, modalitiesToMatch);
+        MatchDecision[] decisions = new MatchDecision[gallery == null ? 0 : gallery.length];
+        for (int i = 0; i < decisions.length; i++) {
+            Map<BiometricType, Decision> modalityDecisions = new EnumMap<>(BiometricType.class);
+            for (BiometricType modality : modalities) {
+                boolean matched = sharesBdb(sample, gallery[i], modality);
+                Decision decision = new Decision();
+                decision.setMatch(matched ? Match.MATCHED : Match.NOT_MATCHED);
+                decision.setErrors(new ArrayList<>());
+                decision.setAnalyticsInfo(Collections.singletonMap("score", matched ? "1.0" : "0.0"));
+                modalityDecisions.put(modality, decision);
+            }
+            decisions[i] = new MatchDecision(i);
+            decisions[i].setDecisions(modalityDecisions);
+            decisions[i].setAnalyticsInfo(new HashMap<>());
+        }
+        return success(decisions);
+    }
+
+    @Override
+    public Response<BiometricRecord> extractTemplate(BiometricRecord sample, List<BiometricType> modalitiesToExtract,
+            Map<String, String> flags) {
+        return simulate("extractTemplate") ? failure() : success(sample);
+    }
+
+    @Override
+    public Response<BiometricRecord> segment(BiometricRecord sample, List<BiometricType> modalitiesToSegment,
+            Map<String, String> flags) {
+        return simulate("segment") ? failure() : success(sample);
+    }
+
+    @Override
+    @Deprecated
+    public BiometricRecord convertFormat(BiometricRecord sample, String sourceFormat, String targetFormat,
+            Map<String, String> sourceParams, Map<String, String> targetParams, List<BiometricType> modalitiesToConvert) {
+        simulate("convertFormat");
+        return sample;
+    }
+
+    @Override
+    public Response<BiometricRecord> convertFormatV2(BiometricRecord sample, String sourceFormat, String targetFormat,
+            Map<String, String> sourceParams, Map<String, String> targetParams, List<BiometricType> modalitiesToConvert) {
+        return simulate("convertFormat") ? failure() : success(sample);
+    }
+
+    /**
+     * Spends the configured cost of the operation.
+     *
+     * @return true if the call is to fail
+     */
+    private boolean simulate(String operation) {
+        Cost cost = costs.getOrDefault(operation, Cost.NONE);
+        if (cost.allocationKb > 0) {
+            byte[] bytes = new byte[(int) Math.min(Integer.MAX_VALUE, cost.allocationKb * 1024)];
+            for (int i = 0; i < bytes.length; i += 4096) {
+                bytes[i] = 1;
+            }
+            allocation = bytes;
+        }
+        if (cost.cpuMillis > 0) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(cost.cpuMillis);
+            long x = 0;
+            while (System.nanoTime() < deadline) {
+                for (int i = 0; i < 1000; i++) {
+                    x = x * 6364136223846793005L + 1442695040888963407L;
+                }
+            }
+            if (x == 42) {
+                allocation = null;
+            }
+        }
+        if (cost.latencyMillis > 0) {
+            try {
+                Thread.sleep(cost.latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return cost.failureRate > 0 && ThreadLocalRandom.current().nextDouble() < cost.failureRate;
+    }
+
+    private static List<BiometricType> modalitiesOf(BiometricRecord record, List<BiometricType> requested) {
+        if (requested != null && !requested.isEmpty()) {
+            return requested;
+        }
+        List<BiometricType> modalities = new ArrayList<>();
+        if (record != null && record.getSegments() != null) {
+            for (BIR segment : record.getSegments()) {
+                if (segment.getBdbInfo() != null && segment.getBdbInfo().getType() != null) {
+                    for (BiometricType modality : segment.getBdbInfo().getType()) {
+                        if (!modalities.contains(modality)) {
+                            modalities.add(modality);
+                        }
+                    }
+                }
+            }
+        }
+        return modalities;
+    }
+
+    private static boolean sharesBdb(BiometricRecord sample, BiometricRecord record, BiometricType modality) {
+        for (BIR probe : segmentsOf(sample, modality)) {
+            for (BIR candidate : segmentsOf(record, modality)) {
+                if (probe.getBdb() != null && Arrays.equals(probe.getBdb(), candidate.getBdb())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<BIR> segmentsOf(BiometricRecord record, BiometricType modality) {
+        List<BIR> segments = new ArrayList<>();
+        if (record != null && record.getSegments() != null) {
+            for (BIR segment : record.getSegments()) {
+                if (segment.getBdbInfo() != null && segment.getBdbInfo().getType() != null
+                        && segment.getBdbInfo().getType().contains(modality)) {
+                    segments.add(segment);
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static <T> Response<T> success(T result) {
+        Response<T> response = new Response<>();
+        response.setStatusCode(ResponseStatus.SUCCESS.getStatusCode());
+        response.setStatusMessage(ResponseStatus.SUCCESS.getStatusMessage());
+        response.setResponse(result);
+        return response;
+    }
+
+    private static <T> Response<T> failure() {
+        Response<T> response = new Response<>();
+        response.setStatusCode(ResponseStatus.UNKNOWN_ERROR.getStatusCode());
+        response.setStatusMessage(ResponseStatus.UNKNOWN_ERROR.getStatusMessage());
+        return response;
+    }
+
+    private static <T> T property(Environment env, String operation, String key, T defaultValue) {
+        @SuppressWarnings("unchecked")
+        Class<T> type = (Class<T>) defaultValue.getClass();
+        return env.getProperty(PREFIX + operation + "." + key, type,
+                env.getProperty(PREFIX + key, type, defaultValue));
+    }
+
+    private static final class Cost {
+        private static final Cost NONE = new Cost(0L, 0L, 0L, 0d);
+
+        private final long latencyMillis;
+        private final long cpuMillis;
+        private final long allocationKb;
+        private final double failureRate;
+
+        private Cost(long latencyMillis, long cpuMillis, long allocationKb, double failureRate) {
+            this.latencyMillis = latencyMillis;
+            this.cpuMillis = cpuMillis;
+            this.allocationKb = allocationKb;
+            this.failureRate = failureRate;
+        }
+    }
+}
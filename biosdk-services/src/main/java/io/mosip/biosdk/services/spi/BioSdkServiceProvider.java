@@ -1,16 +1,27 @@
 package io.mosip.biosdk.services.spi;
 
+import io.mosip.biosdk.services.constants.SdkOperation;
 import io.mosip.biosdk.services.dto.RequestDto;
 
 public interface BioSdkServiceProvider {
     Object getSpecVersion();
 
+    /**
+     * @return the type of the inner request of the operation, which binary transports
+     *         decode the request into directly; null to have it converted on use
+     */
+    default Class<?> getRequestType(SdkOperation operation) {
+        return null;
+    }
+
     Object init(RequestDto request);
 
     Object checkQuality(RequestDto request);
 
     Object match(RequestDto request);
 
+    Object identify(RequestDto request);
+
     Object extractTemplate(RequestDto request);
 
     Object segment(RequestDto request);
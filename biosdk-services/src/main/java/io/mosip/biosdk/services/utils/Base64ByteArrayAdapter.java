@@ -0,0 +1,64 @@
+package io.mosip.biosdk.services.utils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Gson adapter for byte arrays such as BDB, SB and BIRInfo payloads.
+ *
+ * Reading accepts both the legacy JSON array of signed integers and a base64
+ * string, so clients can switch encodings without a coordinated rollout.
+ * Writing uses base64 only when enabled, as existing clients expect arrays.
+ */
+public class Base64ByteArrayAdapter extends TypeAdapter<byte[]> {
+
+    private final boolean writeBase64;
+
+    public Base64ByteArrayAdapter(boolean writeBase64) {
+        this.writeBase64 = writeBase64;
+    }
+
+    @Override
+    public void write(JsonWriter out, byte[] value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+        } else if (writeBase64) {
+            out.value(Base64.getEncoder().encodeToString(value));
+        } else {
+            out.beginArray();
+            for (byte b : value) {
+                out.value(b);
+            }
+            out.endArray();
+        }
+    }
+
+    @Override
+    public byte[] read(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.STRING) {
+            return Base64.getDecoder().decode(in.nextString());
+        }
+        byte[] bytes = new byte[64];
+        int size = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, size << 1);
+            }
+            bytes[size++] = (byte) in.nextInt();
+        }
+        in.endArray();
+        return size == bytes.length ? bytes : Arrays.copyOf(bytes, size);
+    }
+}
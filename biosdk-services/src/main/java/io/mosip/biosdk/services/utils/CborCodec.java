@@ -0,0 +1,124 @@
+package io.mosip.biosdk.services.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.mosip.biosdk.services.constants.ErrorMessages;
+import io.mosip.biosdk.services.dto.RequestDto;
+import io.mosip.biosdk.services.exceptions.BioSDKException;
+
+/**
+ * Reads and writes the binary (CBOR) wire format. The whole request, envelope and
+ * inner spec DTO alike, is a single CBOR document in which byte arrays travel as
+ * raw byte strings instead of base64 text.
+ *
+ * The mapper is deliberately not exposed as a bean so that it never replaces the
+ * JSON {@link ObjectMapper} used by the rest of the application.
+ */
+@Component
+public class CborCodec {
+
+    /** Reader attribute holding the function from a version to the type of its inner request */
+    private static final String PAYLOAD_TYPE_OF = "biosdk.payloadTypeOf";
+
+    private final ObjectMapper mapper = new ObjectMapper(new CBORFactory())
+            .registerModule(new JavaTimeModule())
+            .registerModule(new SimpleModule().addDeserializer(RequestDto.class, new RequestDeserializer()))
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+    /**
+     * Binds the envelope and its inner request in one pass, without an intermediate tree.
+     *
+     * @param payloadTypeOf the type of the inner request for a version, or null to keep
+     *                      it as a tree to be converted on use
+     */
+    public RequestDto readRequest(InputStream body, Function<String, Class<?>> payloadTypeOf) {
+        try {
+            return mapper.readerFor(RequestDto.class)
+                    .withAttribute(PAYLOAD_TYPE_OF, payloadTypeOf)
+                    .readValue(body);
+        } catch (IOException e) {
+            throw new BioSDKException(ErrorMessages.INVALID_REQUEST_BODY.toString(),
+                    ErrorMessages.INVALID_REQUEST_BODY.getMessage() + ": " + e.toString());
+        }
+    }
+
+    public <T> T convert(Object payload, Class<T> type) {
+        try {
+            if (payload instanceof JsonNode) {
+                return mapper.treeToValue((JsonNode) payload, type);
+            }
+            return mapper.convertValue(payload, type);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BioSDKException(ErrorMessages.INVALID_REQUEST_BODY.toString(),
+                    ErrorMessages.INVALID_REQUEST_BODY.getMessage() + ": " + e.toString());
+        }
+    }
+
+    /**
+     * Writes the value to the stream without buffering the whole document; the stream is
+     * left open.
+     */
+    public void write(Object value, OutputStream out) throws IOException {
+        mapper.writeValue(out, value);
+    }
+
+    /**
+     * Reads the version and the inner request of the envelope. The type of the inner
+     * request depends on the version, so an inner request sent ahead of the version is
+     * kept as a tree and converted by {@link #convert(Object, Class)} on use.
+     */
+    private static final class RequestDeserializer extends StdDeserializer<RequestDto> {
+
+        private RequestDeserializer() {
+            super(RequestDto.class);
+        }
+
+        @Override
+        public RequestDto deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartObjectToken()) {
+                return (RequestDto) ctxt.handleUnexpectedToken(RequestDto.class, p);
+            }
+            @SuppressWarnings("unchecked")
+            Function<String, Class<?>> payloadTypeOf = (Function<String, Class<?>>) ctxt.getAttribute(PAYLOAD_TYPE_OF);
+            RequestDto request = new RequestDto();
+            boolean versionRead = false;
+            for (String name = p.nextFieldName(); name != null; name = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                if ("version".equals(name)) {
+                    request.setVersion(token == JsonToken.VALUE_NULL ? null : p.getValueAsString());
+                    versionRead = true;
+                } else if ("request".equals(name)) {
+                    Class<?> type = versionRead && payloadTypeOf != null ? payloadTypeOf.apply(request.getVersion()) : null;
+                    if (token == JsonToken.VALUE_NULL) {
+                        request.setPayload(null);
+                    } else {
+                        request.setPayload(type != null ? ctxt.readValue(p, type) : p.readValueAsTree());
+                    }
+                } else {
+                    p.skipChildren();
+                }
+            }
+            return request;
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package io.mosip.biosdk.services.utils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -7,6 +11,8 @@ import java.util.Base64;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.BiConsumer;
 
 import org.apache.commons.codec.digest.DigestUtils;
@@ -15,11 +21,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import io.mosip.biosdk.services.dto.RequestDto;
 import io.mosip.biosdk.services.impl.spec_1_0.dto.request.CheckQualityRequestDto;
 import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ConvertFormatRequestDto;
 import io.mosip.biosdk.services.impl.spec_1_0.dto.request.ExtractTemplateRequestDto;
+import io.mosip.biosdk.services.impl.spec_1_0.dto.request.IdentifyRequestDto;
 import io.mosip.biosdk.services.impl.spec_1_0.dto.request.InitRequestDto;
 import io.mosip.biosdk.services.impl.spec_1_0.dto.request.MatchRequestDto;
 import io.mosip.biosdk.services.impl.spec_1_0.dto.request.SegmentRequestDto;
@@ -44,10 +54,59 @@ public class Utils {
         return gson.fromJson(request, RequestDto.class);
     }
 
+    /**
+     * Waits for the future and rethrows what it failed with as {@link #unwrap(Throwable)}
+     * does, rather than wrapped in a {@link CompletionException}.
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * The exception to rethrow for a task that failed: an unchecked exception as it is,
+     * also when wrapped in a {@link CompletionException}, and anything else wrapped in a
+     * CompletionException. Errors are thrown right away.
+     */
+    public static RuntimeException unwrap(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return failure instanceof CompletionException ? (CompletionException) failure : new CompletionException(cause);
+    }
+
 	public static String base64Decode(String data){
         return new String(Base64.getDecoder().decode(data), StandardCharsets.UTF_8);
     }
+
+	/**
+	 * Returns a reader over the UTF-8 text encoded in the given base64 string. The
+	 * characters are decoded lazily while reading, so neither the decoded bytes nor
+	 * the decoded text are materialized as a whole.
+	 */
+	public static Reader base64DecodeReader(String data) {
+		InputStream encoded = new CharSequenceInputStream(data);
+		return new InputStreamReader(Base64.getDecoder().wrap(encoded), StandardCharsets.UTF_8);
+	}
 	
+	/**
+	 * Fails if anything but whitespace follows the value just read, as
+	 * {@link com.google.gson.Gson#fromJson(String, Class)} does for strings.
+	 */
+	public static void requireEndOfDocument(JsonReader jsonReader) throws IOException {
+		if (jsonReader.peek() != JsonToken.END_DOCUMENT) {
+			throw new JsonSyntaxException("JSON document was not fully consumed");
+		}
+	}
+
 	public String toString(BiometricRecord biometricRecord) {
 		if(biometricRecord == null) {
 			return "null";
@@ -124,7 +183,39 @@ public class Utils {
 	}
 
 	private static String getHashOfBytes(byte[] byteArray) {
-		return byteArray == null ? "null" : "\""+ DigestUtils.sha256Hex(byteArray) + "\"";
+		return byteArray == null ? "null" : "\""+ sha256Hex(byteArray) + "\"";
+	}
+
+	/**
+	 * @return the hex encoded SHA-256 digest of the bytes, or null for null
+	 */
+	public static String sha256Hex(byte[] byteArray) {
+		return byteArray == null ? null : DigestUtils.sha256Hex(byteArray);
+	}
+
+	/**
+	 * @return the bytes of the data blocks and signatures of the records, which make up
+	 *         most of the memory they take
+	 */
+	public static long sizeOf(BiometricRecord... biometricRecords) {
+		long size = 0;
+		if (biometricRecords != null) {
+			for (BiometricRecord biometricRecord : biometricRecords) {
+				if (biometricRecord == null || biometricRecord.getSegments() == null) {
+					continue;
+				}
+				for (BIR bir : biometricRecord.getSegments()) {
+					if (bir != null) {
+						size += lengthOf(bir.getBdb()) + lengthOf(bir.getSb());
+					}
+				}
+			}
+		}
+		return size;
+	}
+
+	private static long lengthOf(byte[] byteArray) {
+		return byteArray == null ? 0 : byteArray.length;
 	}
 	
 	public String toString(ExtractTemplateRequestDto extractTemplateRequestDto) {
@@ -163,6 +254,25 @@ public class Utils {
 		return stringBuilder.toString();
 	}
 
+	public String toString(IdentifyRequestDto identifyRequestDto) {
+		if(identifyRequestDto == null) {
+			return "null";
+		}
+		StringBuilder stringBuilder = new StringBuilder();
+		stringBuilder.append("{");
+		stringBuilder.append(" \"_modelClass\": \"IdentifyRequestDto\"");
+		stringBuilder.append(", \"flags\":");
+		stringBuilder.append(stringOf(identifyRequestDto.getFlags()));
+		stringBuilder.append(", \"modalitiesToMatch\": ");
+		stringBuilder.append(stringOf(identifyRequestDto.getModalitiesToMatch()));
+		stringBuilder.append(", \"topK\": ");
+		stringBuilder.append(identifyRequestDto.getTopK());
+		stringBuilder.append(", \"sample\": ");
+		appendString(identifyRequestDto.getSample(), stringBuilder);
+		stringBuilder.append(" }");
+		return stringBuilder.toString();
+	}
+
 	public String toString(InitRequestDto initRequestDto) {
 		if(initRequestDto == null) {
 			return "null";
@@ -311,4 +421,55 @@ public class Utils {
 	private static String booleanAsString(Boolean bool) {
 		return bool == null ? "null" : Boolean.toString(bool);
 	}
+
+	/**
+	 * Exposes the characters of a base64 string as bytes without copying them.
+	 * Base64 is pure ASCII, so each char maps to exactly one byte; any other char is
+	 * an error.
+	 */
+	private static final class CharSequenceInputStream extends InputStream {
+		private final CharSequence data;
+		private int position;
+
+		private CharSequenceInputStream(CharSequence data) {
+			if (data == null) {
+				throw new IllegalArgumentException("base64 data is null");
+			}
+			this.data = data;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return position < data.length() ? ascii(data.charAt(position++)) : -1;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			if (length == 0) {
+				return 0;
+			}
+			int remaining = data.length() - position;
+			if (remaining <= 0) {
+				return -1;
+			}
+			int count = Math.min(length, remaining);
+			for (int i = 0; i < count; i++) {
+				buffer[offset + i] = (byte) ascii(data.charAt(position++));
+			}
+			return count;
+		}
+
+		/** Rejects chars that would otherwise be truncated onto valid base64 characters */
+		private static int ascii(char c) throws IOException {
+			if (c > 0x7F) {
+				throw new IOException("Illegal base64 character " + Integer.toHexString(c));
+			}
+			return c;
+		}
+
+		@Override
+		public int available() {
+			return data.length() - position;
+		}
+	}
 }
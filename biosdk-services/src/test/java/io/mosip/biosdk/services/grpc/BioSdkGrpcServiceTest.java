@@ -0,0 +1,309 @@
+package io.mosip.biosdk.services.grpc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.google.protobuf.ByteString;
+
+import io.grpc.ManagedChannel;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mosip.biosdk.services.constants.SdkOperation;
+import io.mosip.biosdk.services.grpc.proto.BioSdkProto;
+import io.mosip.biosdk.services.grpc.proto.BioSdkServiceGrpc;
+
+/**
+ * The gRPC service in-process, over the whole dispatch path down to {@link
+ * io.mosip.biosdk.services.sdk.StubBioApi}.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "biosdk_bioapi_impl=io.mosip.biosdk.services.sdk.StubBioApi",
+        "mosip.biosdk.grpc.enabled=true",
+        "mosip.biosdk.grpc.in-process-name=" + BioSdkGrpcServiceTest.SERVER_NAME,
+        "mosip.biosdk.grpc.stream.max-in-flight=" + BioSdkGrpcServiceTest.MAX_IN_FLIGHT,
+        "mosip.biosdk.async.threads=4",
+        "mosip.biosdk.stub.match.latency-ms=500",
+        "mosip.biosdk.identify.enabled=true" })
+public class BioSdkGrpcServiceTest {
+
+    static final String SERVER_NAME = "biosdk-grpc-test";
+    static final int MAX_IN_FLIGHT = 2;
+
+    private static final long TIMEOUT_SECONDS = 10;
+    private static final ByteString PROBE = ByteString.copyFromUtf8("probe");
+    private static final ByteString OTHER = ByteString.copyFromUtf8("other");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ManagedChannel channel;
+    private BioSdkServiceGrpc.BioSdkServiceBlockingStub blockingStub;
+    private BioSdkServiceGrpc.BioSdkServiceStub asyncStub;
+
+    @Before
+    public void openChannel() {
+        channel = InProcessChannelBuilder.forName(SERVER_NAME).build();
+        blockingStub = BioSdkServiceGrpc.newBlockingStub(channel).withDeadlineAfter(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        asyncStub = BioSdkServiceGrpc.newStub(channel);
+    }
+
+    @After
+    public void closeChannel() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void init() {
+        BioSdkProto.InitResponse response = blockingStub.init(BioSdkProto.InitRequest.newBuilder()
+                .setVersion("1.0")
+                .build());
+
+        assertEquals(0, response.getErrorsCount());
+        assertEquals("0.9", response.getResponse().getApiVersion());
+    }
+
+    @Test
+    public void checkQuality() {
+        BioSdkProto.QualityCheckResponse response = blockingStub.checkQuality(BioSdkProto.CheckQualityRequest.newBuilder()
+                .setVersion("1.0")
+                .setSample(record(PROBE))
+                .addModalitiesToCheck("FINGER")
+                .build());
+
+        assertEquals(0, response.getErrorsCount());
+        assertEquals(200, response.getResponse().getStatusCode());
+        assertEquals(100f, response.getResponse().getResponse().getScoresOrThrow("FINGER").getScore(), 0f);
+    }
+
+    @Test
+    public void match() {
+        BioSdkProto.MatchResponse response = blockingStub.match(matchRequest());
+
+        assertEquals(0, response.getErrorsCount());
+        assertEquals(200, response.getResponse().getStatusCode());
+        assertEquals(2, response.getResponse().getResponseCount());
+        assertEquals("MATCHED", response.getResponse().getResponse(0).getDecisionsOrThrow("FINGER").getMatch());
+        assertEquals("NOT_MATCHED", response.getResponse().getResponse(1).getDecisionsOrThrow("FINGER").getMatch());
+    }
+
+    @Test
+    public void identify() {
+        BioSdkProto.IdentifyResponse response = blockingStub.identify(BioSdkProto.IdentifyRequest.newBuilder()
+                .setVersion("1.0")
+                .setSample(record(PROBE))
+                .build());
+
+        assertEquals(0, response.getErrorsCount());
+        assertEquals(200, response.getResponse().getStatusCode());
+        assertEquals(0, response.getResponse().getResponseCount());
+    }
+
+    @Test
+    public void extractTemplate() {
+        BioSdkProto.RecordResponse response = blockingStub.extractTemplate(extractTemplateRequest());
+
+        assertRecord(response);
+    }
+
+    @Test
+    public void segment() {
+        BioSdkProto.RecordResponse response = blockingStub.segment(BioSdkProto.SegmentRequest.newBuilder()
+                .setVersion("1.0")
+                .setSample(record(PROBE))
+                .build());
+
+        assertRecord(response);
+    }
+
+    @Test
+    public void convertFormat() {
+        BioSdkProto.RecordResponse response = blockingStub.convertFormat(BioSdkProto.ConvertFormatRequest.newBuilder()
+                .setVersion("1.0")
+                .setSample(record(PROBE))
+                .setSourceFormat("ISO19794_4_2011")
+                .setTargetFormat("IMAGE/JPEG")
+                .build());
+
+        assertRecord(response);
+    }
+
+    @Test
+    public void processAnswersInCompletionOrder() throws InterruptedException {
+        BlockingQueue<BioSdkProto.StreamResponse> responses = new LinkedBlockingQueue<>();
+        Completion completion = new Completion();
+        StreamObserver<BioSdkProto.StreamRequest> requests = asyncStub.process(completion.collectingInto(responses));
+
+        requests.onNext(BioSdkProto.StreamRequest.newBuilder().setId("slow").setMatch(matchRequest()).build());
+        requests.onNext(BioSdkProto.StreamRequest.newBuilder().setId("fast").setExtractTemplate(extractTemplateRequest()).build());
+        requests.onCompleted();
+
+        BioSdkProto.StreamResponse first = responses.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        BioSdkProto.StreamResponse second = responses.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals("fast", first.getId());
+        assertTrue(first.hasExtractTemplate());
+        assertEquals("slow", second.getId());
+        assertTrue(second.hasMatch());
+        assertEquals("MATCHED", second.getMatch().getResponse().getResponse(0).getDecisionsOrThrow("FINGER").getMatch());
+        completion.await();
+    }
+
+    @Test
+    public void processStopsReadingWhileResponsesAreNotTaken() throws InterruptedException {
+        int requestCount = MAX_IN_FLIGHT * 3;
+        long readBefore = requestsRead();
+        BlockingQueue<BioSdkProto.StreamResponse> responses = new LinkedBlockingQueue<>();
+        Completion completion = new Completion();
+        AtomicReference<ClientCallStreamObserver<BioSdkProto.StreamRequest>> call = new AtomicReference<>();
+        StreamObserver<BioSdkProto.StreamResponse> collecting = completion.collectingInto(responses);
+        StreamObserver<BioSdkProto.StreamRequest> requests = asyncStub.process(
+                new ClientResponseObserver<BioSdkProto.StreamRequest, BioSdkProto.StreamResponse>() {
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<BioSdkProto.StreamRequest> requestStream) {
+                        requestStream.disableAutoRequestWithInitial(0);
+                        call.set(requestStream);
+                    }
+
+                    @Override
+                    public void onNext(BioSdkProto.StreamResponse response) {
+                        collecting.onNext(response);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        collecting.onError(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        collecting.onCompleted();
+                    }
+                });
+
+        for (int i = 0; i < requestCount; i++) {
+            requests.onNext(BioSdkProto.StreamRequest.newBuilder()
+                    .setId(String.valueOf(i))
+                    .setExtractTemplate(extractTemplateRequest())
+                    .build());
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (requestsRead() - readBefore < MAX_IN_FLIGHT && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // the completed responses are held, so no further request is read
+        Thread.sleep(300);
+        assertEquals(MAX_IN_FLIGHT, requestsRead() - readBefore);
+        assertTrue(responses.isEmpty());
+
+        call.get().request(requestCount);
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < requestCount; i++) {
+            BioSdkProto.StreamResponse response = responses.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertTrue(response.hasExtractTemplate());
+            ids.add(response.getId());
+        }
+        assertEquals(requestCount, ids.size());
+        assertEquals(requestCount, requestsRead() - readBefore);
+        requests.onCompleted();
+        completion.await();
+    }
+
+    /** Extract-template requests read by the server, counted as their sizes are recorded */
+    private long requestsRead() {
+        DistributionSummary summary = meterRegistry.find("biosdk.request.bytes")
+                .tag("operation", SdkOperation.EXTRACT_TEMPLATE.getOperationName())
+                .summary();
+        return summary == null ? 0 : summary.count();
+    }
+
+    private static void assertRecord(BioSdkProto.RecordResponse response) {
+        assertEquals(0, response.getErrorsCount());
+        assertEquals(200, response.getResponse().getStatusCode());
+        assertEquals(1, response.getResponse().getResponse().getSegmentsCount());
+        assertEquals(PROBE, response.getResponse().getResponse().getSegments(0).getBdb());
+    }
+
+    private static BioSdkProto.MatchRequest matchRequest() {
+        return BioSdkProto.MatchRequest.newBuilder()
+                .setVersion("1.0")
+                .setSample(record(PROBE))
+                .addGallery(record(PROBE))
+                .addGallery(record(OTHER))
+                .addModalitiesToMatch("FINGER")
+                .build();
+    }
+
+    private static BioSdkProto.ExtractTemplateRequest extractTemplateRequest() {
+        return BioSdkProto.ExtractTemplateRequest.newBuilder()
+                .setVersion("1.0")
+                .setSample(record(PROBE))
+                .addModalitiesToExtract("FINGER")
+                .build();
+    }
+
+    private static BioSdkProto.BiometricRecord record(ByteString bdb) {
+        return BioSdkProto.BiometricRecord.newBuilder()
+                .addSegments(BioSdkProto.Bir.newBuilder()
+                        .setBdbInfo(BioSdkProto.BdbInfo.newBuilder()
+                                .setFormat(BioSdkProto.RegistryId.newBuilder().setOrganization("Mosip").setType("7"))
+                                .addType("FINGER")
+                                .addSubtype("Left IndexFinger")
+                                .setLevel("RAW")
+                                .setPurpose("VERIFY"))
+                        .setBdb(bdb))
+                .build();
+    }
+
+    /** End of a Process call, as seen by the client */
+    private static final class Completion {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        private StreamObserver<BioSdkProto.StreamResponse> collectingInto(BlockingQueue<BioSdkProto.StreamResponse> responses) {
+            return new StreamObserver<BioSdkProto.StreamResponse>() {
+                @Override
+                public void onNext(BioSdkProto.StreamResponse response) {
+                    responses.add(response);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    error.set(t);
+                    done.countDown();
+                }
+
+                @Override
+                public void onCompleted() {
+                    done.countDown();
+                }
+            };
+        }
+
+        private void await() throws InterruptedException {
+            assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertNull(error.get());
+        }
+    }
+}